@@ -1,5 +1,9 @@
 package com.aspire.blog.order.config;
 
+import java.time.Duration;
+import java.time.Instant;
+
+import org.apache.kafka.clients.producer.Partitioner;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -14,6 +18,24 @@ public class ApplicationProperties {
 
 	private Long maxFileSize;
 
+	private final Report report = new Report();
+
+	private final Export export = new Export();
+
+	private final Pagination pagination = new Pagination();
+
+	private final Bulk bulk = new Bulk();
+
+	private final Retry retry = new Retry();
+
+	private final OrderId orderId = new OrderId();
+
+	private final Aggregates aggregates = new Aggregates();
+
+	private final Outbox outbox = new Outbox();
+
+	private final Kafka kafka = new Kafka();
+
 	public String getUploadDir() {
 		return uploadDir;
 	}
@@ -29,4 +51,441 @@ public class ApplicationProperties {
 	public void setMaxFileSize(Long maxFileSize) {
 		this.maxFileSize = maxFileSize;
 	}
+
+	public Report getReport() {
+		return report;
+	}
+
+	public Export getExport() {
+		return export;
+	}
+
+	public Pagination getPagination() {
+		return pagination;
+	}
+
+	public Bulk getBulk() {
+		return bulk;
+	}
+
+	public Retry getRetry() {
+		return retry;
+	}
+
+	public OrderId getOrderId() {
+		return orderId;
+	}
+
+	public Aggregates getAggregates() {
+		return aggregates;
+	}
+
+	public Outbox getOutbox() {
+		return outbox;
+	}
+
+	public Kafka getKafka() {
+		return kafka;
+	}
+
+	public static class Report {
+
+		private final Virtualizer virtualizer = new Virtualizer();
+
+		private int exportPoolSize = 4;
+
+		private int exportQueueCapacity = 16;
+
+		public Virtualizer getVirtualizer() {
+			return virtualizer;
+		}
+
+		public int getExportPoolSize() {
+			return exportPoolSize;
+		}
+
+		public void setExportPoolSize(int exportPoolSize) {
+			this.exportPoolSize = exportPoolSize;
+		}
+
+		public int getExportQueueCapacity() {
+			return exportQueueCapacity;
+		}
+
+		public void setExportQueueCapacity(int exportQueueCapacity) {
+			this.exportQueueCapacity = exportQueueCapacity;
+		}
+
+		/**
+		 * Swap file virtualizer used to fill large reports: filled pages past
+		 * {@code maxPages} are spilled to {@code spillDir}, relative to the upload
+		 * directory, instead of being kept in the heap.
+		 */
+		public static class Virtualizer {
+
+			private boolean enabled = true;
+
+			private int maxPages = 100;
+
+			private String spillDir = "report-swap";
+
+			private int blockSize = 4096;
+
+			private int minGrowCount = 100;
+
+			public boolean isEnabled() {
+				return enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxPages() {
+				return maxPages;
+			}
+
+			public void setMaxPages(int maxPages) {
+				this.maxPages = maxPages;
+			}
+
+			public String getSpillDir() {
+				return spillDir;
+			}
+
+			public void setSpillDir(String spillDir) {
+				this.spillDir = spillDir;
+			}
+
+			public int getBlockSize() {
+				return blockSize;
+			}
+
+			public void setBlockSize(int blockSize) {
+				this.blockSize = blockSize;
+			}
+
+			public int getMinGrowCount() {
+				return minGrowCount;
+			}
+
+			public void setMinGrowCount(int minGrowCount) {
+				this.minGrowCount = minGrowCount;
+			}
+		}
+	}
+
+	public static class Export {
+
+		private int maxConcurrentJobs = 2;
+
+		private Duration jobRetention = Duration.ofHours(1);
+
+		private final Cache cache = new Cache();
+
+		public int getMaxConcurrentJobs() {
+			return maxConcurrentJobs;
+		}
+
+		public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+			this.maxConcurrentJobs = maxConcurrentJobs;
+		}
+
+		public Duration getJobRetention() {
+			return jobRetention;
+		}
+
+		public void setJobRetention(Duration jobRetention) {
+			this.jobRetention = jobRetention;
+		}
+
+		public Cache getCache() {
+			return cache;
+		}
+
+		/**
+		 * Cache of rendered exports: at most {@code maxEntries} exports and
+		 * {@code maxBytes} in total, each kept for {@code timeToLive}. Exports
+		 * bigger than {@code maxEntryBytes} are not cached.
+		 */
+		public static class Cache {
+
+			private boolean enabled = true;
+
+			private int maxEntries = 32;
+
+			private long maxBytes = 64L * 1024 * 1024;
+
+			private long maxEntryBytes = 16L * 1024 * 1024;
+
+			private Duration timeToLive = Duration.ofMinutes(10);
+
+			public boolean isEnabled() {
+				return enabled;
+			}
+
+			public void setEnabled(boolean enabled) {
+				this.enabled = enabled;
+			}
+
+			public int getMaxEntries() {
+				return maxEntries;
+			}
+
+			public void setMaxEntries(int maxEntries) {
+				this.maxEntries = maxEntries;
+			}
+
+			public long getMaxBytes() {
+				return maxBytes;
+			}
+
+			public void setMaxBytes(long maxBytes) {
+				this.maxBytes = maxBytes;
+			}
+
+			public long getMaxEntryBytes() {
+				return maxEntryBytes;
+			}
+
+			public void setMaxEntryBytes(long maxEntryBytes) {
+				this.maxEntryBytes = maxEntryBytes;
+			}
+
+			public Duration getTimeToLive() {
+				return timeToLive;
+			}
+
+			public void setTimeToLive(Duration timeToLive) {
+				this.timeToLive = timeToLive;
+			}
+		}
+	}
+
+	/**
+	 * Page sizes of the keyset paginated order list.
+	 */
+	public static class Pagination {
+
+		private int defaultPageSize = 20;
+
+		private int maxPageSize = 1000;
+
+		public int getDefaultPageSize() {
+			return defaultPageSize;
+		}
+
+		public void setDefaultPageSize(int defaultPageSize) {
+			this.defaultPageSize = defaultPageSize;
+		}
+
+		public int getMaxPageSize() {
+			return maxPageSize;
+		}
+
+		public void setMaxPageSize(int maxPageSize) {
+			this.maxPageSize = maxPageSize;
+		}
+	}
+
+	/**
+	 * Bulk creation of orders: each chunk of {@code chunkSize} orders is saved in
+	 * its own transaction, with batched inserts.
+	 */
+	public static class Bulk {
+
+		private int chunkSize = 1000;
+
+		public int getChunkSize() {
+			return chunkSize;
+		}
+
+		public void setChunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+	}
+
+	/**
+	 * Retries of order updates which lost a race on the optimistic locking
+	 * version: up to {@code maxAttempts} attempts, waiting an exponentially
+	 * growing delay, from {@code initialBackoff} to at most {@code maxBackoff}.
+	 */
+	public static class Retry {
+
+		private int maxAttempts = 3;
+
+		private Duration initialBackoff = Duration.ofMillis(20);
+
+		private Duration maxBackoff = Duration.ofMillis(200);
+
+		public int getMaxAttempts() {
+			return maxAttempts;
+		}
+
+		public void setMaxAttempts(int maxAttempts) {
+			this.maxAttempts = maxAttempts;
+		}
+
+		public Duration getInitialBackoff() {
+			return initialBackoff;
+		}
+
+		public void setInitialBackoff(Duration initialBackoff) {
+			this.initialBackoff = initialBackoff;
+		}
+
+		public Duration getMaxBackoff() {
+			return maxBackoff;
+		}
+
+		public void setMaxBackoff(Duration maxBackoff) {
+			this.maxBackoff = maxBackoff;
+		}
+	}
+
+	/**
+	 * Generation of the order ids, see
+	 * {@link com.aspire.blog.order.domain.id.OrderIdGenerator}.
+	 * <p>
+	 * With the {@code snowflake} strategy every instance needs its own
+	 * {@code nodeId}, below {@code 2^nodeBits}; the more node bits, the fewer ids
+	 * per millisecond each node can generate.
+	 */
+	public static class OrderId {
+
+		private String strategy = "pooled";
+
+		private long nodeId = 0;
+
+		private int nodeBits = 10;
+
+		private Instant epoch = Instant.parse("2026-01-01T00:00:00Z");
+
+		public String getStrategy() {
+			return strategy;
+		}
+
+		public void setStrategy(String strategy) {
+			this.strategy = strategy;
+		}
+
+		public long getNodeId() {
+			return nodeId;
+		}
+
+		public void setNodeId(long nodeId) {
+			this.nodeId = nodeId;
+		}
+
+		public int getNodeBits() {
+			return nodeBits;
+		}
+
+		public void setNodeBits(int nodeBits) {
+			this.nodeBits = nodeBits;
+		}
+
+		public Instant getEpoch() {
+			return epoch;
+		}
+
+		public void setEpoch(Instant epoch) {
+			this.epoch = epoch;
+		}
+	}
+
+	/**
+	 * Caching of the order aggregates: dashboards poll them, a short
+	 * {@code timeToLive} bounds both their staleness and the queries they cost.
+	 */
+	public static class Aggregates {
+
+		private Duration timeToLive = Duration.ofSeconds(10);
+
+		public Duration getTimeToLive() {
+			return timeToLive;
+		}
+
+		public void setTimeToLive(Duration timeToLive) {
+			this.timeToLive = timeToLive;
+		}
+	}
+
+	/**
+	 * Relay of the order outbox to Kafka: messages are sent {@code batchSize} at
+	 * a time, each batch waiting at most {@code sendTimeout} in total for Kafka to
+	 * acknowledge its messages.
+	 */
+	public static class Outbox {
+
+		private int batchSize = 500;
+
+		private Duration sendTimeout = Duration.ofSeconds(10);
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Duration getSendTimeout() {
+			return sendTimeout;
+		}
+
+		public void setSendTimeout(Duration sendTimeout) {
+			this.sendTimeout = sendTimeout;
+		}
+	}
+
+	/**
+	 * Publishing to Kafka: at most {@code maxInFlight} messages are sent and not
+	 * acknowledged yet, a send waits at most {@code acquireTimeout} for one of
+	 * them to complete before being rejected. The producer is configured with the
+	 * {@code producerPreset} settings, and sends the messages to the partition
+	 * chosen by the {@code partitioner} class.
+	 */
+	public static class Kafka {
+
+		private int maxInFlight = 1000;
+
+		private Duration acquireTimeout = Duration.ofMillis(100);
+
+		private KafkaProducerPreset producerPreset = KafkaProducerPreset.LATENCY;
+
+		private Class<? extends Partitioner> partitioner = OrderIdPartitioner.class;
+
+		public int getMaxInFlight() {
+			return maxInFlight;
+		}
+
+		public void setMaxInFlight(int maxInFlight) {
+			this.maxInFlight = maxInFlight;
+		}
+
+		public Duration getAcquireTimeout() {
+			return acquireTimeout;
+		}
+
+		public void setAcquireTimeout(Duration acquireTimeout) {
+			this.acquireTimeout = acquireTimeout;
+		}
+
+		public KafkaProducerPreset getProducerPreset() {
+			return producerPreset;
+		}
+
+		public void setProducerPreset(KafkaProducerPreset producerPreset) {
+			this.producerPreset = producerPreset;
+		}
+
+		public Class<? extends Partitioner> getPartitioner() {
+			return partitioner;
+		}
+
+		public void setPartitioner(Class<? extends Partitioner> partitioner) {
+			this.partitioner = partitioner;
+		}
+	}
 }
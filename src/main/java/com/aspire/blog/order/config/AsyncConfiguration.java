@@ -1,6 +1,7 @@
 package com.aspire.blog.order.config;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,8 +26,12 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
 	private final TaskExecutionProperties taskExecutionProperties;
 
-	public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+	private final ApplicationProperties applicationProperties;
+
+	public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties,
+			ApplicationProperties applicationProperties) {
 		this.taskExecutionProperties = taskExecutionProperties;
+		this.applicationProperties = applicationProperties;
 	}
 
 	@Override
@@ -41,6 +46,19 @@ public class AsyncConfiguration implements AsyncConfigurer {
 		return new ExceptionHandlingAsyncTaskExecutor(executor);
 	}
 
+	@Bean(name = "reportExecutor")
+	public Executor getReportExecutor() {
+		log.debug("Creating Report Export Executor");
+		ApplicationProperties.Report report = applicationProperties.getReport();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(report.getExportPoolSize());
+		executor.setMaxPoolSize(report.getExportPoolSize());
+		executor.setQueueCapacity(report.getExportQueueCapacity());
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setThreadNamePrefix("report-export-");
+		return executor;
+	}
+
 	@Override
 	public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
 		return new SimpleAsyncUncaughtExceptionHandler();
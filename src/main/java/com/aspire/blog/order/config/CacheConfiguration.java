@@ -13,6 +13,8 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.aspire.blog.order.repository.OrderRepository;
+
 import io.github.jhipster.config.JHipsterProperties;
 
 @Configuration
@@ -21,7 +23,9 @@ public class CacheConfiguration {
 
 	private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
 
-	public CacheConfiguration(JHipsterProperties jHipsterProperties) {
+	private final javax.cache.configuration.Configuration<Object, Object> aggregatesJcacheConfiguration;
+
+	public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
 		JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
 
 		jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
@@ -30,6 +34,13 @@ public class CacheConfiguration {
 				.withExpiry(
 						ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
 				.build());
+
+		// One entry per aggregate query, expiring soon so that polled aggregates stay fresh
+		aggregatesJcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(CacheConfigurationBuilder
+				.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(2))
+				.withExpiry(ExpiryPolicyBuilder
+						.timeToLiveExpiration(applicationProperties.getAggregates().getTimeToLive()))
+				.build());
 	}
 
 	@Bean
@@ -41,15 +52,21 @@ public class CacheConfiguration {
 	public JCacheManagerCustomizer cacheManagerCustomizer() {
 		return cm -> {
 			createCache(cm, com.aspire.blog.order.domain.Order.class.getName());
+			createCache(cm, OrderRepository.ORDER_AGGREGATES_CACHE, aggregatesJcacheConfiguration);
 			// jhipster-needle-ehcache-add-entry
 		};
 	}
 
 	private void createCache(javax.cache.CacheManager cm, String cacheName) {
+		createCache(cm, cacheName, jcacheConfiguration);
+	}
+
+	private void createCache(javax.cache.CacheManager cm, String cacheName,
+			javax.cache.configuration.Configuration<Object, Object> configuration) {
 		javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
 		if (cache != null) {
 			cm.destroyCache(cacheName);
 		}
-		cm.createCache(cacheName, jcacheConfiguration);
+		cm.createCache(cacheName, configuration);
 	}
 }
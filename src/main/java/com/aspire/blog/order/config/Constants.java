@@ -10,6 +10,12 @@ public final class Constants {
 	public static final String TOPIC_ORDER_PLACED = "order_placed";
 	public static final String TOPIC_ORDER_FAILED = "order_failed";
 
+	/**
+	 * JDBC fetch size used when streaming large result sets. Used as an
+	 * annotation value, hence a String.
+	 */
+	public static final String STREAM_FETCH_SIZE = "500";
+
 	private Constants() {
 	}
 }
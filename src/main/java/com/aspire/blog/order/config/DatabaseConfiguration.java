@@ -2,11 +2,15 @@ package com.aspire.blog.order.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.aspire.blog.order.domain.id.OrderIdGenerator;
+
 @Configuration
 @EnableJpaRepositories("com.aspire.blog.order.repository")
 @EnableJpaAuditing(auditorAwareRef = "springSecurityAuditorAware")
@@ -14,4 +18,24 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 public class DatabaseConfiguration {
 
 	private final Logger log = LoggerFactory.getLogger(DatabaseConfiguration.class);
+
+	/**
+	 * Hand the order id settings over to {@link OrderIdGenerator}, which
+	 * Hibernate instantiates itself.
+	 *
+	 * @param applicationProperties the order id settings.
+	 * @return the customizer of the Hibernate properties.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer orderIdHibernatePropertiesCustomizer(
+			ApplicationProperties applicationProperties) {
+		ApplicationProperties.OrderId orderId = applicationProperties.getOrderId();
+		log.debug("Generating order ids with the {} strategy", orderId.getStrategy());
+		return hibernateProperties -> {
+			hibernateProperties.put(OrderIdGenerator.STRATEGY, orderId.getStrategy());
+			hibernateProperties.put(OrderIdGenerator.NODE_ID, Long.toString(orderId.getNodeId()));
+			hibernateProperties.put(OrderIdGenerator.NODE_BITS, Integer.toString(orderId.getNodeBits()));
+			hibernateProperties.put(OrderIdGenerator.EPOCH, Long.toString(orderId.getEpoch().toEpochMilli()));
+		};
+	}
 }
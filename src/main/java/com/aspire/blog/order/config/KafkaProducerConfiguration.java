@@ -0,0 +1,48 @@
+package com.aspire.blog.order.config;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+
+@Configuration
+public class KafkaProducerConfiguration {
+
+	private static final Logger log = LoggerFactory.getLogger(KafkaProducerConfiguration.class);
+
+	/**
+	 * The Kafka producer factory, configured with the
+	 * {@code application.kafka.producer-preset} settings and the
+	 * {@code application.kafka.partitioner}. Any {@code spring.kafka.producer.*}
+	 * setting overrides them, but the value serializer: messages are sent as
+	 * bytes, see {@link com.aspire.blog.order.service.OrderEventCodec}.
+	 *
+	 * @param kafkaProperties       the Spring Boot Kafka settings.
+	 * @param applicationProperties the preset.
+	 * @return the producer factory.
+	 */
+	@Bean
+	public ProducerFactory<Object, Object> kafkaProducerFactory(KafkaProperties kafkaProperties,
+			ApplicationProperties applicationProperties) {
+		KafkaProducerPreset preset = applicationProperties.getKafka().getProducerPreset();
+		Map<String, Object> properties = preset.producerProperties();
+		properties.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, applicationProperties.getKafka().getPartitioner());
+		properties.putAll(kafkaProperties.buildProducerProperties());
+		// Spring Boot defaults to a String serializer, the messages are encoded already
+		properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+		log.debug("Kafka producer preset {}", preset);
+		DefaultKafkaProducerFactory<Object, Object> factory = new DefaultKafkaProducerFactory<>(properties);
+		String transactionIdPrefix = kafkaProperties.getProducer().getTransactionIdPrefix();
+		if (transactionIdPrefix != null) {
+			factory.setTransactionIdPrefix(transactionIdPrefix);
+		}
+		return factory;
+	}
+}
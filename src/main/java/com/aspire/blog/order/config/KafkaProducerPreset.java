@@ -0,0 +1,51 @@
+package com.aspire.blog.order.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+/**
+ * Producer settings tuned for throughput or for latency, selected by
+ * {@code application.kafka.producer-preset}. Both wait for every in-sync
+ * replica and enable idempotence, so retries neither lose nor duplicate nor
+ * reorder messages.
+ * <p>
+ * {@link #THROUGHPUT} lingers to fill large lz4 compressed batches,
+ * {@link #LATENCY} sends every message right away, uncompressed.
+ */
+public enum KafkaProducerPreset {
+
+	THROUGHPUT(20, 128 * 1024, "lz4"), LATENCY(0, 16 * 1024, "none");
+
+	/**
+	 * The most in-flight requests per connection idempotence keeps in order.
+	 */
+	private static final int MAX_IN_FLIGHT_REQUESTS = 5;
+
+	private final int lingerMs;
+
+	private final int batchSize;
+
+	private final String compressionType;
+
+	KafkaProducerPreset(int lingerMs, int batchSize, String compressionType) {
+		this.lingerMs = lingerMs;
+		this.batchSize = batchSize;
+		this.compressionType = compressionType;
+	}
+
+	/**
+	 * @return the producer configuration of this preset.
+	 */
+	public Map<String, Object> producerProperties() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+		properties.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+		properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+		properties.put(ProducerConfig.ACKS_CONFIG, "all");
+		properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+		properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, MAX_IN_FLIGHT_REQUESTS);
+		return properties;
+	}
+}
@@ -0,0 +1,81 @@
+package com.aspire.blog.order.config;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+
+/**
+ * Partitions the messages keyed by an order id with a jump consistent hash, so
+ * that all the messages of an order go to the same partition, in order, and
+ * adding partitions to a topic only moves the orders of the new partitions.
+ * Messages without a numeric key are partitioned by the
+ * {@link DefaultPartitioner}.
+ */
+public class OrderIdPartitioner implements Partitioner {
+
+	private final DefaultPartitioner defaultPartitioner = new DefaultPartitioner();
+
+	@Override
+	public void configure(Map<String, ?> configs) {
+		defaultPartitioner.configure(configs);
+	}
+
+	@Override
+	public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes,
+			Cluster cluster) {
+		Long orderId = orderId(key);
+		if (orderId == null) {
+			return defaultPartitioner.partition(topic, key, keyBytes, value, valueBytes, cluster);
+		}
+		return jumpConsistentHash(mix(orderId), cluster.partitionsForTopic(topic).size());
+	}
+
+	@Override
+	public void close() {
+		defaultPartitioner.close();
+	}
+
+	private static Long orderId(Object key) {
+		if (key instanceof Long) {
+			return (Long) key;
+		}
+		if (!(key instanceof String) || ((String) key).isEmpty()) {
+			return null;
+		}
+		try {
+			return Long.valueOf((String) key);
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Spread sequential ids over the whole key space, the jump hash expects
+	 * uniformly distributed keys.
+	 */
+	private static long mix(long key) {
+		key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+		key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return key ^ (key >>> 33);
+	}
+
+	/**
+	 * Lamping and Veach's jump consistent hash.
+	 *
+	 * @param key     the key.
+	 * @param buckets the number of buckets, positive.
+	 * @return the bucket of the key, in {@code [0, buckets)}.
+	 */
+	static int jumpConsistentHash(long key, int buckets) {
+		long bucket = -1;
+		long jump = 0;
+		while (jump < buckets) {
+			bucket = jump;
+			key = key * 2862933555777941757L + 1;
+			jump = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+		}
+		return (int) bucket;
+	}
+}
@@ -0,0 +1,34 @@
+package com.aspire.blog.order.config;
+
+import java.util.Collections;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+@Configuration
+public class RetryConfiguration {
+
+	/**
+	 * Retries a unit of work which failed on an optimistic locking conflict.
+	 * Other exceptions are thrown right away.
+	 *
+	 * @param applicationProperties the retry settings.
+	 * @return the retry template.
+	 */
+	@Bean
+	public RetryTemplate optimisticLockRetryTemplate(ApplicationProperties applicationProperties) {
+		ApplicationProperties.Retry retry = applicationProperties.getRetry();
+		RetryTemplate retryTemplate = new RetryTemplate();
+		retryTemplate.setRetryPolicy(new SimpleRetryPolicy(retry.getMaxAttempts(),
+				Collections.singletonMap(OptimisticLockingFailureException.class, true), true));
+		ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+		backOffPolicy.setInitialInterval(retry.getInitialBackoff().toMillis());
+		backOffPolicy.setMaxInterval(retry.getMaxBackoff().toMillis());
+		retryTemplate.setBackOffPolicy(backOffPolicy);
+		return retryTemplate;
+	}
+}
@@ -1,16 +1,24 @@
 package com.aspire.blog.order.domain;
 
 import java.io.Serializable;
+import java.time.Instant;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
 
 /**
  * A Order.
@@ -22,8 +30,23 @@ public class Order implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Ids are assigned before the insert, so that inserts can be batched, which
+	 * an identity column prevents. By default they are allocated in blocks from
+	 * the {@code jhi_id_sequence} table, see
+	 * {@link com.aspire.blog.order.domain.id.OrderIdGenerator} for the
+	 * time-ordered alternative.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(generator = "orderIdGenerator")
+	@GenericGenerator(name = "orderIdGenerator", strategy = "com.aspire.blog.order.domain.id.OrderIdGenerator",
+			parameters = { @Parameter(name = TableGenerator.TABLE_PARAM, value = "jhi_id_sequence"),
+					@Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = "sequence_name"),
+					@Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = "next_val"),
+					@Parameter(name = TableGenerator.SEGMENT_VALUE_PARAM, value = "jhi_order"),
+					@Parameter(name = TableGenerator.INITIAL_PARAM, value = "1"),
+					@Parameter(name = TableGenerator.INCREMENT_PARAM, value = "50"),
+					@Parameter(name = TableGenerator.OPT_PARAM, value = "pooled") })
 	private Long id;
 
 	@Column(name = "name")
@@ -35,8 +58,16 @@ public class Order implements Serializable {
 	@Column(name = "inventory")
 	private Long inventory;
 
-	@Column(name = "in_progress")
-	private Boolean inProgress;
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", length = 16, nullable = false)
+	private OrderStatus status;
+
+	@Column(name = "placed_date", nullable = false)
+	private Instant placedDate;
+
+	@Version
+	@Column(name = "version", nullable = false)
+	private Long version;
 
 	// jhipster-needle-entity-add-field - JHipster will add fields here, do not
 	// remove
@@ -87,17 +118,38 @@ public class Order implements Serializable {
 		this.inventory = inventory;
 	}
 
-	public Boolean isInProgress() {
-		return inProgress;
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public Order status(OrderStatus status) {
+		this.status = status;
+		return this;
+	}
+
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+
+	public Instant getPlacedDate() {
+		return placedDate;
 	}
 
-	public Order inProgress(Boolean inProgress) {
-		this.inProgress = inProgress;
+	public Order placedDate(Instant placedDate) {
+		this.placedDate = placedDate;
 		return this;
 	}
 
-	public void setInProgress(Boolean inProgress) {
-		this.inProgress = inProgress;
+	public void setPlacedDate(Instant placedDate) {
+		this.placedDate = placedDate;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
 	}
 	// jhipster-needle-entity-add-getters-setters - JHipster will add getters and
 	// setters here, do not remove
@@ -121,6 +173,7 @@ public class Order implements Serializable {
 	@Override
 	public String toString() {
 		return "Order{" + "id=" + getId() + ", name='" + getName() + "'" + ", amount=" + getAmount() + ", inventory="
-				+ getInventory() + ", inProgress='" + isInProgress() + "'" + "}";
+				+ getInventory() + ", status='" + getStatus() + "'" + ", placedDate='" + getPlacedDate() + "'"
+				+ ", version=" + getVersion() + "}";
 	}
 }
@@ -0,0 +1,185 @@
+package com.aspire.blog.order.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.Type;
+
+/**
+ * A Kafka message about an {@link Order}, written in the transaction changing
+ * the order and relayed to Kafka once committed.
+ * <p>
+ * Ids come from an identity column: a later transaction on the same order
+ * always inserts its messages after the earlier one committed, so relaying by
+ * id keeps the order of the messages of each order.
+ * <p>
+ * The {@code body} is an order event encoded with the {@code schemaVersion} of
+ * the {@link com.aspire.blog.order.service.OrderEventCodec}. Messages of
+ * schema version 0 were written before the binary encoding: their
+ * {@code payload} is the JSON envelope, sent as is.
+ */
+@Entity
+@Table(name = "jhi_order_outbox")
+public class OrderOutboxMessage implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "order_id", nullable = false)
+	private Long orderId;
+
+	@Column(name = "topic", nullable = false)
+	private String topic;
+
+	@Lob
+	@Type(type = "org.hibernate.type.TextType")
+	@Column(name = "payload")
+	private String payload;
+
+	@Lob
+	@Column(name = "body")
+	private byte[] body;
+
+	@Column(name = "schema_version", nullable = false)
+	private Integer schemaVersion;
+
+	@Lob
+	@Type(type = "org.hibernate.type.TextType")
+	@Column(name = "auth_token")
+	private String authToken;
+
+	@Column(name = "created_date", nullable = false)
+	private Instant createdDate;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getOrderId() {
+		return orderId;
+	}
+
+	public OrderOutboxMessage orderId(Long orderId) {
+		this.orderId = orderId;
+		return this;
+	}
+
+	public void setOrderId(Long orderId) {
+		this.orderId = orderId;
+	}
+
+	public String getTopic() {
+		return topic;
+	}
+
+	public OrderOutboxMessage topic(String topic) {
+		this.topic = topic;
+		return this;
+	}
+
+	public void setTopic(String topic) {
+		this.topic = topic;
+	}
+
+	public String getPayload() {
+		return payload;
+	}
+
+	public OrderOutboxMessage payload(String payload) {
+		this.payload = payload;
+		return this;
+	}
+
+	public void setPayload(String payload) {
+		this.payload = payload;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+	public OrderOutboxMessage body(byte[] body) {
+		this.body = body;
+		return this;
+	}
+
+	public void setBody(byte[] body) {
+		this.body = body;
+	}
+
+	public Integer getSchemaVersion() {
+		return schemaVersion;
+	}
+
+	public OrderOutboxMessage schemaVersion(Integer schemaVersion) {
+		this.schemaVersion = schemaVersion;
+		return this;
+	}
+
+	public void setSchemaVersion(Integer schemaVersion) {
+		this.schemaVersion = schemaVersion;
+	}
+
+	public String getAuthToken() {
+		return authToken;
+	}
+
+	public OrderOutboxMessage authToken(String authToken) {
+		this.authToken = authToken;
+		return this;
+	}
+
+	public void setAuthToken(String authToken) {
+		this.authToken = authToken;
+	}
+
+	public Instant getCreatedDate() {
+		return createdDate;
+	}
+
+	public OrderOutboxMessage createdDate(Instant createdDate) {
+		this.createdDate = createdDate;
+		return this;
+	}
+
+	public void setCreatedDate(Instant createdDate) {
+		this.createdDate = createdDate;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof OrderOutboxMessage)) {
+			return false;
+		}
+		return id != null && id.equals(((OrderOutboxMessage) o).id);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderOutboxMessage{" + "id=" + getId() + ", orderId=" + getOrderId() + ", topic='" + getTopic() + "'"
+				+ ", schemaVersion=" + getSchemaVersion() + ", createdDate='" + getCreatedDate() + "'" + "}";
+	}
+}
@@ -0,0 +1,27 @@
+package com.aspire.blog.order.domain.enumeration;
+
+/**
+ * The lifecycle status of an order.
+ */
+public enum OrderStatus {
+
+	/**
+	 * Placed and waiting for its transaction to complete.
+	 */
+	PLACED,
+
+	/**
+	 * Its transaction completed.
+	 */
+	COMPLETED,
+
+	/**
+	 * Its transaction failed.
+	 */
+	FAILED,
+
+	/**
+	 * Cancelled before its transaction completed.
+	 */
+	CANCELLED
+}
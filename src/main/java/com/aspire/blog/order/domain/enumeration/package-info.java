@@ -0,0 +1,4 @@
+/**
+ * JPA domain enumerations.
+ */
+package com.aspire.blog.order.domain.enumeration;
@@ -0,0 +1,26 @@
+package com.aspire.blog.order.domain.event;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+import com.aspire.blog.order.domain.Order;
+
+public class OrderBatchEvent extends ApplicationEvent {
+
+	private final List<Order> orders;
+
+	public OrderBatchEvent(List<Order> orders) {
+		super(orders);
+		this.orders = orders;
+	}
+
+	public List<Order> getOrders() {
+		return orders;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderBatchEvent [orders=" + orders.size() + "]";
+	}
+}
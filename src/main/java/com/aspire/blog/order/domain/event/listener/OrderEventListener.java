@@ -1,5 +1,8 @@
 package com.aspire.blog.order.domain.event.listener;
 
+import java.util.Collections;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +12,10 @@ import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 import com.aspire.blog.order.config.Constants;
+import com.aspire.blog.order.domain.event.OrderBatchEvent;
 import com.aspire.blog.order.domain.event.OrderEvent;
 import com.aspire.blog.order.service.OrderKafkaProducer;
-import com.google.gson.Gson;
+import com.aspire.blog.order.service.mapper.OrderMapper;
 
 @Component
 public class OrderEventListener implements ApplicationListener<OrderEvent> {
@@ -21,26 +25,35 @@ public class OrderEventListener implements ApplicationListener<OrderEvent> {
 	@Autowired
 	private OrderKafkaProducer orderKafkaProducer;
 
+	@Autowired
+	private OrderMapper orderMapper;
+
 	/**
-	 * To handle After Commit phase of transaction for order.
+	 * To handle After Rollback phase of transaction for order. Committed orders
+	 * are sent through the {@link com.aspire.blog.order.service.OrderOutbox}
+	 * instead, a rolled back transaction has no outbox to write to. The event is
+	 * sent without waiting for Kafka, this runs on the request thread.
 	 * 
 	 * @param event
 	 */
-	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-	public void processEventCommit(OrderEvent event) {
-		log.debug("Order Event received AFTER_COMMIT: {}", event);
-		orderKafkaProducer.sendMessage(Constants.TOPIC_ORDER_PLACED, new Gson().toJson(event.getOrder()));
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+	public void processEventRollback(OrderEvent event) {
+		log.debug("Order Event received AFTER_ROLLBACK: {}", event);
+		orderKafkaProducer.sendEvents(Constants.TOPIC_ORDER_FAILED,
+				Collections.singletonList(orderMapper.toEventDto(event.getOrder())));
 	}
 
 	/**
-	 * To handle After Commit phase of transaction for order.
+	 * To handle After Rollback phase of transaction for a batch of orders. The
+	 * events are sent without waiting for Kafka.
 	 * 
 	 * @param event
 	 */
 	@TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
-	public void processEventRollback(OrderEvent event) {
-		log.debug("Order Event received AFTER_ROLLBACK: {}", event);
-		orderKafkaProducer.sendMessage(Constants.TOPIC_ORDER_FAILED, new Gson().toJson(event.getOrder()));
+	public void processBatchEventRollback(OrderBatchEvent event) {
+		log.debug("Order Batch Event received AFTER_ROLLBACK: {}", event);
+		orderKafkaProducer.sendEvents(Constants.TOPIC_ORDER_FAILED,
+				event.getOrders().stream().map(orderMapper::toEventDto).collect(Collectors.toList()));
 	}
 
 	@Override
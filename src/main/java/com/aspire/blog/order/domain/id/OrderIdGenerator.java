@@ -0,0 +1,93 @@
+package com.aspire.blog.order.domain.id;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.Database;
+import org.hibernate.boot.model.relational.ExportableProducer;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Id generator of {@link com.aspire.blog.order.domain.Order}, picked by the
+ * {@value #STRATEGY} Hibernate setting:
+ * <ul>
+ * <li>{@code pooled}, the default: ids are allocated in blocks from a table,
+ * configured by the {@link TableGenerator} parameters of the mapping.</li>
+ * <li>{@code snowflake}: time-ordered ids computed locally by a
+ * {@link SnowflakeIdGenerator}, configured by the {@value #NODE_ID},
+ * {@value #NODE_BITS} and {@value #EPOCH} settings. Those ids do not depend on
+ * any database, so orders can be spread over several.</li>
+ * </ul>
+ * Either way the id is known before the insert, so inserts can be batched.
+ */
+public class OrderIdGenerator implements IdentifierGenerator, Configurable, ExportableProducer {
+
+	public static final String STRATEGY = "order.id.strategy";
+
+	public static final String NODE_ID = "order.id.node-id";
+
+	public static final String NODE_BITS = "order.id.node-bits";
+
+	public static final String EPOCH = "order.id.epoch";
+
+	public static final String POOLED = "pooled";
+
+	public static final String SNOWFLAKE = "snowflake";
+
+	private final TableGenerator tableGenerator = new TableGenerator();
+
+	private SnowflakeIdGenerator snowflakeIdGenerator;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+		String strategy = setting(settings, STRATEGY, POOLED).toLowerCase(Locale.ROOT);
+		switch (strategy) {
+		case POOLED:
+			tableGenerator.configure(type, params, serviceRegistry);
+			break;
+		case SNOWFLAKE:
+			try {
+				snowflakeIdGenerator = new SnowflakeIdGenerator(Long.parseLong(setting(settings, EPOCH, "0")),
+						Integer.parseInt(setting(settings, NODE_BITS, "10")),
+						Long.parseLong(setting(settings, NODE_ID, "0")));
+			} catch (IllegalArgumentException ex) {
+				throw new MappingException("Invalid snowflake order id settings: " + ex.getMessage(), ex);
+			}
+			break;
+		default:
+			throw new MappingException("Unknown order id strategy " + strategy);
+		}
+	}
+
+	@Override
+	public void registerExportables(Database database) {
+		if (snowflakeIdGenerator == null) {
+			tableGenerator.registerExportables(database);
+		}
+	}
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object)
+			throws HibernateException {
+		if (snowflakeIdGenerator != null) {
+			return snowflakeIdGenerator.nextId();
+		}
+		return tableGenerator.generate(session, object);
+	}
+
+	private static String setting(Map<?, ?> settings, String name, String defaultValue) {
+		Object value = settings.get(name);
+		return value == null ? defaultValue : value.toString().trim();
+	}
+}
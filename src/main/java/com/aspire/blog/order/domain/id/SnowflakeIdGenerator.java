@@ -0,0 +1,109 @@
+package com.aspire.blog.order.domain.id;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered 64-bit ids without any database round trip.
+ * <p>
+ * An id packs, from the most significant bits down, the milliseconds elapsed
+ * since {@code epochMillis} on 41 bits, the node id on {@code nodeBits} bits,
+ * and a sequence within the millisecond on the remaining
+ * {@code 22 - nodeBits} bits. Ids are unique as long as every node generating
+ * ids for the same table has its own node id, and they increase with time, so
+ * ordering by id still orders by creation.
+ * <p>
+ * The generator never waits on the clock: when the sequence of the current
+ * millisecond is exhausted, or the clock goes backwards, it carries on with
+ * the next millisecond, which keeps the ids increasing.
+ */
+public class SnowflakeIdGenerator {
+
+	private static final int TIMESTAMP_BITS = 41;
+
+	private static final int NODE_AND_SEQUENCE_BITS = Long.SIZE - 1 - TIMESTAMP_BITS;
+
+	/**
+	 * At least this many sequence bits are kept, that is 2 ids per millisecond.
+	 */
+	private static final int MIN_SEQUENCE_BITS = 1;
+
+	private final long epochMillis;
+
+	private final long nodeShifted;
+
+	private final int sequenceBits;
+
+	private final long maxSequence;
+
+	private final LongSupplier clock;
+
+	private long lastTimestamp = -1L;
+
+	private long sequence;
+
+	public SnowflakeIdGenerator(long epochMillis, int nodeBits, long nodeId) {
+		this(epochMillis, nodeBits, nodeId, System::currentTimeMillis);
+	}
+
+	SnowflakeIdGenerator(long epochMillis, int nodeBits, long nodeId, LongSupplier clock) {
+		if (nodeBits < 0 || nodeBits > NODE_AND_SEQUENCE_BITS - MIN_SEQUENCE_BITS) {
+			throw new IllegalArgumentException("Node bits must be between 0 and "
+					+ (NODE_AND_SEQUENCE_BITS - MIN_SEQUENCE_BITS) + ", not " + nodeBits);
+		}
+		if (nodeId < 0 || nodeId >= 1L << nodeBits) {
+			throw new IllegalArgumentException("Node id " + nodeId + " does not fit in " + nodeBits + " bits");
+		}
+		this.epochMillis = epochMillis;
+		this.sequenceBits = NODE_AND_SEQUENCE_BITS - nodeBits;
+		this.nodeShifted = nodeId << sequenceBits;
+		this.maxSequence = (1L << sequenceBits) - 1;
+		this.clock = clock;
+	}
+
+	/**
+	 * Get the next id.
+	 *
+	 * @return an id greater than all the ids generated before.
+	 * @throws IllegalStateException if the clock is before the epoch, or past the
+	 *                               41 bits of milliseconds after it.
+	 */
+	public synchronized long nextId() {
+		long timestamp = clock.getAsLong() - epochMillis;
+		if (timestamp <= lastTimestamp) {
+			timestamp = lastTimestamp;
+			if (sequence == maxSequence) {
+				timestamp++;
+				sequence = 0;
+			} else {
+				sequence++;
+			}
+		} else {
+			sequence = 0;
+		}
+		if (timestamp < 0 || timestamp >= 1L << TIMESTAMP_BITS) {
+			throw new IllegalStateException("Clock is out of the id range: " + timestamp + " ms since the epoch");
+		}
+		lastTimestamp = timestamp;
+		return timestamp << NODE_AND_SEQUENCE_BITS | nodeShifted | sequence;
+	}
+
+	/**
+	 * Get the time an id was generated at.
+	 *
+	 * @param id an id of this generator.
+	 * @return the epoch milliseconds the id was generated at.
+	 */
+	public long timestampOf(long id) {
+		return (id >>> NODE_AND_SEQUENCE_BITS) + epochMillis;
+	}
+
+	/**
+	 * Get the node which generated an id.
+	 *
+	 * @param id an id of this generator.
+	 * @return the node id.
+	 */
+	public long nodeOf(long id) {
+		return (id & (1L << NODE_AND_SEQUENCE_BITS) - 1) >>> sequenceBits;
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Id generators of the JPA domain objects.
+ */
+package com.aspire.blog.order.domain.id;
@@ -0,0 +1,21 @@
+package com.aspire.blog.order.report;
+
+import org.springframework.core.io.ByteArrayResource;
+
+/**
+ * An export served from memory, downloaded under a friendly name.
+ */
+public class CachedExportResource extends ByteArrayResource {
+
+	private final String downloadName;
+
+	public CachedExportResource(byte[] content, String downloadName) {
+		super(content, "cached export [" + downloadName + "]");
+		this.downloadName = downloadName;
+	}
+
+	@Override
+	public String getFilename() {
+		return downloadName;
+	}
+}
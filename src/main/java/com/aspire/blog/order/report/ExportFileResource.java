@@ -0,0 +1,82 @@
+package com.aspire.blog.order.report;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+
+/**
+ * An exported file, downloaded under a friendly name rather than its unique
+ * name on disk.
+ * <p>
+ * A temporary export is deleted as soon as the stream reading it is closed, so
+ * it can be served exactly once.
+ */
+public class ExportFileResource extends FileSystemResource {
+
+	private static final Logger log = LoggerFactory.getLogger(ExportFileResource.class);
+
+	private final String downloadName;
+
+	private final boolean temporary;
+
+	public ExportFileResource(Path path, String downloadName, boolean temporary) {
+		super(path);
+		this.downloadName = downloadName;
+		this.temporary = temporary;
+	}
+
+	@Override
+	public String getFilename() {
+		return downloadName;
+	}
+
+	public boolean isTemporary() {
+		return temporary;
+	}
+
+	/**
+	 * Get a view of this export which is not deleted once read, for files served
+	 * several times.
+	 *
+	 * @return the retained export.
+	 */
+	public ExportFileResource retain() {
+		return new ExportFileResource(getFile().toPath(), downloadName, false);
+	}
+
+	/**
+	 * Delete the exported file.
+	 */
+	public void delete() {
+		try {
+			Files.deleteIfExists(getFile().toPath());
+		} catch (IOException ex) {
+			log.warn("Could not delete export file {}: {}", getPath(), ex.getMessage());
+		}
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		InputStream in = super.getInputStream();
+		if (!temporary) {
+			return in;
+		}
+		return new FilterInputStream(in) {
+
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					delete();
+				}
+			}
+		};
+	}
+}
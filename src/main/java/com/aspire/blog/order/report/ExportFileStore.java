@@ -0,0 +1,121 @@
+package com.aspire.blog.order.report;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+
+/**
+ * Storage of exported files under {@code application.upload-dir}.
+ * <p>
+ * Every export gets its own uniquely named file, so concurrent exports never
+ * share a file. It is first written as a {@code .part} file, then renamed
+ * atomically, so a file is only ever seen complete.
+ * <p>
+ * The directory may be shared by several instances: the exports left over by
+ * a previous run are only removed once older than
+ * {@code application.export.job-retention}, as no live instance still writes
+ * or serves them by then.
+ */
+@Component
+public class ExportFileStore {
+
+	private static final Logger log = LoggerFactory.getLogger(ExportFileStore.class);
+
+	private static final String PREFIX = "orders-";
+
+	private static final String PART_SUFFIX = ".part";
+
+	private final Path directory;
+
+	private final Duration retention;
+
+	public ExportFileStore(ApplicationProperties applicationProperties) throws IOException {
+		this.directory = Paths.get(applicationProperties.getUploadDir()).toAbsolutePath().normalize();
+		this.retention = applicationProperties.getExport().getJobRetention();
+		Files.createDirectories(directory);
+	}
+
+	/**
+	 * Remove the exports left over by a previous run: those not modified for
+	 * longer than the job retention. Newer files may belong to another instance
+	 * sharing the directory.
+	 */
+	@PostConstruct
+	public void removeOrphans() {
+		FileTime expiry = FileTime.from(Instant.now().minus(retention));
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*")) {
+			for (Path file : files) {
+				if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).compareTo(expiry) < 0) {
+					log.debug("Removing orphan export file {}", file);
+					Files.deleteIfExists(file);
+				}
+			}
+		} catch (IOException ex) {
+			log.warn("Could not remove orphan export files from {}: {}", directory, ex.getMessage());
+		}
+	}
+
+	/**
+	 * Create the file an export is written to.
+	 *
+	 * @param type the export type.
+	 * @return a new, empty {@code .part} file.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public Path createPartFile(ExportType type) throws IOException {
+		return createPartFile(type.getExtension());
+	}
+
+	/**
+	 * Create the file an export is written to.
+	 *
+	 * @param extension the file extension, including the dot.
+	 * @return a new, empty {@code .part} file.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public Path createPartFile(String extension) throws IOException {
+		return Files.createTempFile(directory, PREFIX, extension + PART_SUFFIX);
+	}
+
+	/**
+	 * Publish a fully written export.
+	 *
+	 * @param partFile the file the export was written to.
+	 * @param type     the export type.
+	 * @return the temporary exported file.
+	 * @throws IOException if the file cannot be renamed.
+	 */
+	public ExportFileResource publish(Path partFile, ExportType type) throws IOException {
+		String fileName = partFile.getFileName().toString();
+		Path target = partFile.resolveSibling(fileName.substring(0, fileName.length() - PART_SUFFIX.length()));
+		Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE);
+		return new ExportFileResource(target, type.getDownloadName(), true);
+	}
+
+	/**
+	 * Delete an export file which could not be completed.
+	 *
+	 * @param partFile the file the export was written to.
+	 */
+	public void discard(Path partFile) {
+		try {
+			Files.deleteIfExists(partFile);
+		} catch (IOException ex) {
+			log.warn("Could not delete export file {}: {}", partFile, ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.aspire.blog.order.report;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The formats orders can be exported to, with the file name the export is
+ * downloaded as. A {@link #BUNDLE} is a ZIP of the report in every format,
+ * rendered from a single fill.
+ */
+public enum ExportType {
+
+	PDF("example.pdf"), PRINT("example.pdf"), XLSX("Example.xlsx"), CSV("example.csv"), BUNDLE("orders.zip");
+
+	private final String downloadName;
+
+	ExportType(String downloadName) {
+		this.downloadName = downloadName;
+	}
+
+	public String getDownloadName() {
+		return downloadName;
+	}
+
+	public String getExtension() {
+		return downloadName.substring(downloadName.lastIndexOf('.'));
+	}
+
+	public static Optional<ExportType> fromName(String name) {
+		return Arrays.stream(values()).filter(type -> type.name().equals(name)).findFirst();
+	}
+}
@@ -0,0 +1,59 @@
+package com.aspire.blog.order.report;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.aspire.blog.order.service.dto.OrderDTO;
+
+/**
+ * Writes orders as CSV rows, one at a time, straight to a {@link Writer}.
+ * <p>
+ * Unlike the Jasper CSV export nothing is buffered besides the writer itself,
+ * so memory use does not depend on the number of orders written.
+ */
+public class OrderCsvWriter {
+
+	private static final String SEPARATOR = ",";
+
+	private static final String LINE_SEPARATOR = "\r\n";
+
+	private static final String[] HEADER = { "Name", "Amount", "Inventory" };
+
+	private final Writer writer;
+
+	public OrderCsvWriter(Writer writer) {
+		this.writer = writer;
+	}
+
+	public void writeHeader() throws IOException {
+		writeRow(HEADER);
+	}
+
+	public void write(OrderDTO order) throws IOException {
+		writeRow(order.getName(), order.getAmount(), order.getInventory());
+	}
+
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	private void writeRow(Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				writer.write(SEPARATOR);
+			}
+			if (values[i] != null) {
+				writer.write(escape(values[i].toString()));
+			}
+		}
+		writer.write(LINE_SEPARATOR);
+	}
+
+	private static String escape(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+				&& value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,186 @@
+package com.aspire.blog.order.report;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+/**
+ * The SQL query selecting the rows of the order report, with the
+ * {@link OrderCriteria} turned into {@code WHERE} predicates and bind
+ * arguments. Columns are selected under the names of the report fields.
+ * <p>
+ * Every operator of every filter becomes a predicate, all of them must hold:
+ * the same rows as
+ * {@link com.aspire.blog.order.service.OrderQueryService#createSpecification}
+ * selects for the other exports.
+ */
+public final class OrderReportQuery {
+
+	/**
+	 * Escape character of {@code LIKE} patterns. A backslash is not portable, as
+	 * MySQL already treats it as an escape inside string literals.
+	 */
+	public static final char LIKE_ESCAPE = '!';
+
+	private static final String SELECT = "select id, name, amount, inventory from jhi_order";
+
+	private static final String ORDER_BY = " order by id";
+
+	private final String sql;
+
+	private final List<Object> arguments;
+
+	private OrderReportQuery(String sql, List<Object> arguments) {
+		this.sql = sql;
+		this.arguments = Collections.unmodifiableList(arguments);
+	}
+
+	/**
+	 * Build the query for the orders matching the criteria.
+	 *
+	 * @param criteria the filters, null for all the orders.
+	 * @return the query.
+	 */
+	public static OrderReportQuery of(OrderCriteria criteria) {
+		List<String> predicates = new ArrayList<>();
+		List<Object> arguments = new ArrayList<>();
+		if (criteria != null) {
+			addRange(predicates, arguments, "id", criteria.getId());
+			if (criteria.getName() != null) {
+				addString(predicates, arguments, "name", criteria.getName());
+				if (criteria.getName().getStartsWith() != null) {
+					predicates.add("name like ? escape '" + LIKE_ESCAPE + "'");
+					arguments.add(escapeLike(criteria.getName().getStartsWith()) + "%");
+				}
+			}
+			addRange(predicates, arguments, "amount", criteria.getAmount());
+			addStatus(predicates, arguments, criteria.getStatus());
+		}
+		String where = predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates);
+		return new OrderReportQuery(SELECT + where + ORDER_BY, arguments);
+	}
+
+	/**
+	 * The {@code LIKE} pattern of a case insensitive {@code contains} or
+	 * {@code doesNotContain} filter, matched against the upper cased column.
+	 *
+	 * @param value the value to find.
+	 * @return the pattern.
+	 */
+	public static String containsPattern(String value) {
+		return "%" + escapeLike(value.toUpperCase(Locale.ROOT)) + "%";
+	}
+
+	/**
+	 * Escape the wildcards of a {@code LIKE} pattern with {@link #LIKE_ESCAPE}.
+	 *
+	 * @param value the value to match literally.
+	 * @return the escaped value.
+	 */
+	public static String escapeLike(String value) {
+		String escape = String.valueOf(LIKE_ESCAPE);
+		return value.replace(escape, escape + escape).replace("%", escape + "%").replace("_", escape + "_");
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public List<Object> getArguments() {
+		return arguments;
+	}
+
+	private static void addFilter(List<String> predicates, List<Object> arguments, String column, Filter<?> filter) {
+		if (filter == null) {
+			return;
+		}
+		if (filter.getEquals() != null) {
+			predicates.add(column + " = ?");
+			arguments.add(filter.getEquals());
+		}
+		if (filter.getNotEquals() != null) {
+			predicates.add(column + " <> ?");
+			arguments.add(filter.getNotEquals());
+		}
+		if (filter.getIn() != null) {
+			if (filter.getIn().isEmpty()) {
+				predicates.add("1 = 0");
+			} else {
+				predicates.add(column + " in (" + placeholders(filter.getIn()) + ")");
+				arguments.addAll(filter.getIn());
+			}
+		}
+		if (filter.getNotIn() != null && !filter.getNotIn().isEmpty()) {
+			predicates.add(column + " not in (" + placeholders(filter.getNotIn()) + ")");
+			arguments.addAll(filter.getNotIn());
+		}
+		if (filter.getSpecified() != null) {
+			predicates.add(column + (filter.getSpecified() ? " is not null" : " is null"));
+		}
+	}
+
+	private static void addStatus(List<String> predicates, List<Object> arguments,
+			OrderCriteria.OrderStatusFilter filter) {
+		if (filter == null) {
+			return;
+		}
+		// The status is stored by name, bind the names rather than the enum constants
+		Filter<String> names = new Filter<>();
+		names.setEquals(filter.getEquals() != null ? filter.getEquals().name() : null);
+		names.setNotEquals(filter.getNotEquals() != null ? filter.getNotEquals().name() : null);
+		names.setIn(names(filter.getIn()));
+		names.setNotIn(names(filter.getNotIn()));
+		names.setSpecified(filter.getSpecified());
+		addFilter(predicates, arguments, "status", names);
+	}
+
+	private static void addRange(List<String> predicates, List<Object> arguments, String column,
+			RangeFilter<?> filter) {
+		if (filter == null) {
+			return;
+		}
+		addFilter(predicates, arguments, column, filter);
+		addComparison(predicates, arguments, column, " > ?", filter.getGreaterThan());
+		addComparison(predicates, arguments, column, " >= ?", filter.getGreaterThanOrEqual());
+		addComparison(predicates, arguments, column, " < ?", filter.getLessThan());
+		addComparison(predicates, arguments, column, " <= ?", filter.getLessThanOrEqual());
+	}
+
+	private static void addString(List<String> predicates, List<Object> arguments, String column,
+			StringFilter filter) {
+		addFilter(predicates, arguments, column, filter);
+		if (filter.getContains() != null) {
+			predicates.add("upper(" + column + ") like ? escape '" + LIKE_ESCAPE + "'");
+			arguments.add(containsPattern(filter.getContains()));
+		}
+		if (filter.getDoesNotContain() != null) {
+			predicates.add("upper(" + column + ") not like ? escape '" + LIKE_ESCAPE + "'");
+			arguments.add(containsPattern(filter.getDoesNotContain()));
+		}
+	}
+
+	private static void addComparison(List<String> predicates, List<Object> arguments, String column,
+			String operator, Object value) {
+		if (value != null) {
+			predicates.add(column + operator);
+			arguments.add(value);
+		}
+	}
+
+	private static String placeholders(List<?> values) {
+		return String.join(", ", Collections.nCopies(values.size(), "?"));
+	}
+
+	private static List<String> names(List<OrderStatus> statuses) {
+		return statuses == null ? null : statuses.stream().map(Enum::name).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,114 @@
+package com.aspire.blog.order.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+
+/**
+ * Exports a filled report to PDF, XLSX, CSV and HTML at once and bundles the
+ * files in a ZIP.
+ * <p>
+ * The formats are rendered in parallel on the bounded {@code reportExecutor},
+ * all of them from the same {@link JasperPrint}, so the query and the fill run
+ * only once.
+ */
+@Component
+public class ReportBundleExporter {
+
+	private static final String HTML_ENTRY = "example.html";
+
+	private final Executor reportExecutor;
+
+	private final ExportFileStore exportFileStore;
+
+	public ReportBundleExporter(@Qualifier("reportExecutor") Executor reportExecutor,
+			ExportFileStore exportFileStore) {
+		this.reportExecutor = reportExecutor;
+		this.exportFileStore = exportFileStore;
+	}
+
+	/**
+	 * Export a filled report in every format and write the ZIP.
+	 *
+	 * @param jasperPrint the filled report.
+	 * @param target      the file the ZIP is written to.
+	 * @throws JRException if a format cannot be exported.
+	 * @throws IOException if a file cannot be written.
+	 */
+	public void export(JasperPrint jasperPrint, Path target) throws JRException, IOException {
+		SimpleReportExporter exporter = new SimpleReportExporter(jasperPrint);
+		Map<String, FormatExport> formats = new LinkedHashMap<>();
+		formats.put(ExportType.PDF.getDownloadName(), file -> exporter.exportToPdf(file, "DHAVAL"));
+		formats.put(ExportType.XLSX.getDownloadName(), file -> exporter.exportToXlsx(file, "Example"));
+		formats.put(ExportType.CSV.getDownloadName(), exporter::exportToCsv);
+		formats.put(HTML_ENTRY, exporter::exportToHtml);
+
+		Map<String, Path> entries = new LinkedHashMap<>();
+		try {
+			for (String entryName : formats.keySet()) {
+				entries.put(entryName, exportFileStore.createPartFile(entryName.substring(entryName.lastIndexOf('.'))));
+			}
+			List<CompletableFuture<Void>> exports = new ArrayList<>();
+			formats.forEach((entryName, format) -> exports.add(submit(format, entries.get(entryName))));
+			await(exports);
+
+			try (OutputStream out = Files.newOutputStream(target); ZipOutputStream zip = new ZipOutputStream(out)) {
+				for (Map.Entry<String, Path> entry : entries.entrySet()) {
+					zip.putNextEntry(new ZipEntry(entry.getKey()));
+					Files.copy(entry.getValue(), zip);
+					zip.closeEntry();
+				}
+			}
+		} finally {
+			entries.values().forEach(exportFileStore::discard);
+		}
+	}
+
+	private CompletableFuture<Void> submit(FormatExport format, Path file) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				format.exportTo(file.toString());
+			} catch (JRException ex) {
+				throw new CompletionException(ex);
+			}
+		}, reportExecutor);
+	}
+
+	/**
+	 * Wait for every format, so that no export is still writing when the files
+	 * are removed.
+	 */
+	private static void await(List<CompletableFuture<Void>> exports) throws JRException {
+		CompletableFuture<Void> all = CompletableFuture.allOf(exports.toArray(new CompletableFuture<?>[0]));
+		try {
+			all.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof JRException) {
+				throw (JRException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	@FunctionalInterface
+	private interface FormatExport {
+
+		void exportTo(String fileName) throws JRException;
+	}
+}
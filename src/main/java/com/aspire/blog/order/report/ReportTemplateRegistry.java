@@ -0,0 +1,122 @@
+package com.aspire.blog.order.report;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+
+/**
+ * Keeps compiled Jasper report templates in memory.
+ * <p>
+ * A template is compiled once, at startup or on first use, from its
+ * {@code .jrxml} source. It is only recompiled when the checksum of that
+ * source changes.
+ */
+@Component
+public class ReportTemplateRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(ReportTemplateRegistry.class);
+
+	public static final String ORDER_REPORT = "example.jrxml";
+
+	private final ResourceLoader resourceLoader;
+
+	private final ConcurrentMap<String, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+	public ReportTemplateRegistry(ResourceLoader resourceLoader) {
+		this.resourceLoader = resourceLoader;
+	}
+
+	@PostConstruct
+	public void precompile() {
+		try {
+			getReport(ORDER_REPORT);
+		} catch (JRException | IOException ex) {
+			log.warn("Could not precompile report template {}, it will be compiled on first use: {}", ORDER_REPORT,
+					ex.getMessage());
+		}
+	}
+
+	/**
+	 * Get the compiled report for a classpath template.
+	 *
+	 * @param templateName the {@code .jrxml} file name, relative to the classpath
+	 *                     root.
+	 * @return the compiled report.
+	 * @throws JRException if the template cannot be compiled.
+	 * @throws IOException if the template cannot be read.
+	 */
+	public JasperReport getReport(String templateName) throws JRException, IOException {
+		Resource source = classpathResource(templateName);
+		long lastModified = lastModified(source);
+		CompiledTemplate compiled = templates.get(templateName);
+		if (compiled != null && compiled.lastModified == lastModified) {
+			return compiled.report;
+		}
+		return load(templateName, source, lastModified);
+	}
+
+	private synchronized JasperReport load(String templateName, Resource source, long lastModified)
+			throws JRException, IOException {
+		CompiledTemplate compiled = templates.get(templateName);
+		if (compiled != null && compiled.lastModified == lastModified) {
+			return compiled.report;
+		}
+		byte[] content;
+		try (InputStream in = source.getInputStream()) {
+			content = StreamUtils.copyToByteArray(in);
+		}
+		String checksum = DigestUtils.md5DigestAsHex(content);
+		JasperReport report;
+		if (compiled != null && compiled.checksum.equals(checksum)) {
+			report = compiled.report;
+		} else {
+			log.info("Compiling report template {}", templateName);
+			report = JasperCompileManager.compileReport(new ByteArrayInputStream(content));
+		}
+		templates.put(templateName, new CompiledTemplate(checksum, lastModified, report));
+		return report;
+	}
+
+	private Resource classpathResource(String name) {
+		return resourceLoader.getResource(ResourceLoader.CLASSPATH_URL_PREFIX + name);
+	}
+
+	private static long lastModified(Resource resource) {
+		try {
+			return resource.lastModified();
+		} catch (IOException ex) {
+			return -1L;
+		}
+	}
+
+	private static final class CompiledTemplate {
+
+		private final String checksum;
+
+		private final long lastModified;
+
+		private final JasperReport report;
+
+		private CompiledTemplate(String checksum, long lastModified, JasperReport report) {
+			this.checksum = checksum;
+			this.lastModified = lastModified;
+			this.report = report;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.aspire.blog.order.report;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.stereotype.Component;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+
+import net.sf.jasperreports.engine.fill.JRSwapFile;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+
+/**
+ * Creates the virtualizers used to fill large reports.
+ * <p>
+ * A virtualizer keeps at most {@code application.report.virtualizer.max-pages}
+ * filled pages in the heap and spills the others to a swap file under
+ * {@code application.report.virtualizer.spill-dir}. Each fill needs its own
+ * virtualizer, which must be cleaned up once the report has been exported.
+ */
+@Component
+public class ReportVirtualizerFactory {
+
+	private final ApplicationProperties.Report.Virtualizer properties;
+
+	private final Path spillDirectory;
+
+	public ReportVirtualizerFactory(ApplicationProperties applicationProperties) throws IOException {
+		this.properties = applicationProperties.getReport().getVirtualizer();
+		this.spillDirectory = Paths.get(applicationProperties.getUploadDir()).resolve(properties.getSpillDir())
+				.toAbsolutePath().normalize();
+		if (properties.isEnabled()) {
+			Files.createDirectories(spillDirectory);
+		}
+	}
+
+	/**
+	 * Create a new virtualizer for one report fill.
+	 *
+	 * @return the virtualizer, or {@code null} if virtualization is disabled.
+	 */
+	public JRSwapFileVirtualizer create() {
+		if (!properties.isEnabled()) {
+			return null;
+		}
+		JRSwapFile swapFile = new JRSwapFile(spillDirectory.toString(), properties.getBlockSize(),
+				properties.getMinGrowCount());
+		return new JRSwapFileVirtualizer(properties.getMaxPages(), swapFile, true);
+	}
+}
@@ -35,7 +35,7 @@ public class SimpleReportExporter {
 		this.jasperPrint = jasperPrint;
 	}
 
-	public void exportToPdf(String fileName, String author) {
+	public void exportToPdf(String fileName, String author) throws JRException {
 
 		// print report to file
 		JRPdfExporter exporter = new JRPdfExporter();
@@ -54,14 +54,10 @@ public class SimpleReportExporter {
 
 		exporter.setConfiguration(reportConfig);
 		exporter.setConfiguration(exportConfig);
-		try {
-			exporter.exportReport();
-		} catch (JRException ex) {
-			System.out.println(ex);
-		}
+		exporter.exportReport();
 	}
 
-	public void exportToXlsx(String fileName, String sheetName) {
+	public void exportToXlsx(String fileName, String sheetName) throws JRException {
 		JRXlsxExporter exporter = new JRXlsxExporter();
 
 		exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
@@ -72,36 +68,24 @@ public class SimpleReportExporter {
 
 		exporter.setConfiguration(reportConfig);
 
-		try {
-			exporter.exportReport();
-		} catch (JRException ex) {
-			System.out.println(ex);
-		}
+		exporter.exportReport();
 	}
 
-	public void exportToCsv(String fileName) {
+	public void exportToCsv(String fileName) throws JRException {
 		JRCsvExporter exporter = new JRCsvExporter();
 
 		exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
 		exporter.setExporterOutput(new SimpleWriterExporterOutput(fileName));
 
-		try {
-			exporter.exportReport();
-		} catch (JRException ex) {
-			System.out.println(ex);
-		}
+		exporter.exportReport();
 	}
 
-	public void exportToHtml(String fileName) {
+	public void exportToHtml(String fileName) throws JRException {
 		HtmlExporter exporter = new HtmlExporter();
 
 		exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
 		exporter.setExporterOutput(new SimpleHtmlExporterOutput(fileName));
 
-		try {
-			exporter.exportReport();
-		} catch (JRException ex) {
-			System.out.println(ex);
-		}
+		exporter.exportReport();
 	}
 }
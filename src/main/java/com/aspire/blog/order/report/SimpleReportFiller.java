@@ -1,85 +1,73 @@
 package com.aspire.blog.order.report;
 
-import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.sql.DataSource;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import com.aspire.blog.order.config.Constants;
 
 import net.sf.jasperreports.engine.JRException;
-import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JRResultSetDataSource;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
-import net.sf.jasperreports.engine.util.JRSaver;
 
+/**
+ * Fills reports straight from a SQL query.
+ * <p>
+ * Rows are read through a forward-only, read-only result set with a fetch size
+ * of {@link Constants#STREAM_FETCH_SIZE}, so that the driver streams them
+ * (MySQL needs {@code useCursorFetch=true} for it) and no entity is hydrated or
+ * put in the second-level cache. The connection is the one of the current
+ * transaction, if any, and is always handed back to the pool.
+ */
+@Component
 public class SimpleReportFiller {
-	private String reportFileName;
-
-	private JasperReport jasperReport;
-
-	private JasperPrint jasperPrint;
 
-	@Autowired
-	private DataSource dataSource;
-
-	private Map<String, Object> parameters;
-
-	public SimpleReportFiller() {
-		parameters = new HashMap<>();
-	}
+	private final DataSource dataSource;
 
-	public void prepareReport() {
-		compileReport();
-		fillReport();
+	public SimpleReportFiller(DataSource dataSource) {
+		this.dataSource = dataSource;
 	}
 
-	public void compileReport() {
-		try {
-			InputStream reportStream = getClass().getResourceAsStream("/".concat(reportFileName));
-			jasperReport = JasperCompileManager.compileReport(reportStream);
-			JRSaver.saveObject(jasperReport, reportFileName.replace(".jrxml", ".jasper"));
-		} catch (JRException ex) {
-			System.out.println(ex);
+	/**
+	 * Fill a report with the rows of a query.
+	 *
+	 * @param jasperReport the compiled report.
+	 * @param parameters   the report parameters.
+	 * @param query        the query, selecting columns named after the report
+	 *                     fields.
+	 * @return the filled report.
+	 * @throws JRException if the query fails or the report cannot be filled.
+	 */
+	public JasperPrint fillReport(JasperReport jasperReport, Map<String, Object> parameters, OrderReportQuery query)
+			throws JRException {
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try (PreparedStatement statement = connection.prepareStatement(query.getSql(), ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY)) {
+			statement.setFetchSize(Integer.parseInt(Constants.STREAM_FETCH_SIZE));
+			bind(statement, query.getArguments());
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return JasperFillManager.fillReport(jasperReport, parameters, new JRResultSetDataSource(resultSet));
+			}
+		} catch (SQLException ex) {
+			throw new JRException("Could not query the report rows", ex);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
 		}
 	}
 
-	public void fillReport() {
-		try {
-			jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource.getConnection());
-		} catch (JRException | SQLException ex) {
-			System.out.println(ex);
+	private static void bind(PreparedStatement statement, List<Object> arguments) throws SQLException {
+		for (int i = 0; i < arguments.size(); i++) {
+			statement.setObject(i + 1, arguments.get(i));
 		}
 	}
-
-	public DataSource getDataSource() {
-		return dataSource;
-	}
-
-	public void setDataSource(DataSource dataSource) {
-		this.dataSource = dataSource;
-	}
-
-	public Map<String, Object> getParameters() {
-		return parameters;
-	}
-
-	public void setParameters(Map<String, Object> parameters) {
-		this.parameters = parameters;
-	}
-
-	public String getReportFileName() {
-		return reportFileName;
-	}
-
-	public void setReportFileName(String reportFileName) {
-		this.reportFileName = reportFileName;
-	}
-
-	public JasperPrint getJasperPrint() {
-		return jasperPrint;
-	}
 }
@@ -0,0 +1,32 @@
+package com.aspire.blog.order.repository;
+
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+
+/**
+ * Spring Data repository for the OrderOutboxMessage entity.
+ */
+@Repository
+public interface OrderOutboxRepository
+		extends JpaRepository<OrderOutboxMessage, Long>, OrderOutboxRepositoryCustom {
+
+	/**
+	 * Get the oldest messages, locked until the end of the transaction so that a
+	 * single relay sends them.
+	 *
+	 * @param pageable the number of messages.
+	 * @return the messages, by id.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select m from OrderOutboxMessage m order by m.id")
+	List<OrderOutboxMessage> findOldestForUpdate(Pageable pageable);
+}
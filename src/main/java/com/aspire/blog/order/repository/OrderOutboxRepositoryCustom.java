@@ -0,0 +1,19 @@
+package com.aspire.blog.order.repository;
+
+import java.util.List;
+
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+
+/**
+ * Custom queries of the {@link OrderOutboxRepository}.
+ */
+public interface OrderOutboxRepositoryCustom {
+
+	/**
+	 * Insert messages in JDBC batches, which Hibernate does not do for identity
+	 * ids. The messages are not managed, and their ids are not read back.
+	 *
+	 * @param messages the messages to insert.
+	 */
+	void append(List<OrderOutboxMessage> messages);
+}
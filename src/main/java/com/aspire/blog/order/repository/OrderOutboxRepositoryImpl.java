@@ -0,0 +1,48 @@
+package com.aspire.blog.order.repository;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+
+/**
+ * Implementation of the {@link OrderOutboxRepositoryCustom} queries.
+ */
+public class OrderOutboxRepositoryImpl implements OrderOutboxRepositoryCustom {
+
+	private static final String INSERT = "insert into jhi_order_outbox"
+			+ " (order_id, topic, body, schema_version, auth_token, created_date) values (?, ?, ?, ?, ?, ?)";
+
+	/**
+	 * Same as {@code hibernate.jdbc.batch_size}.
+	 */
+	private static final int BATCH_SIZE = 50;
+
+	/**
+	 * Dates are stored in UTC, as {@code hibernate.jdbc.time_zone} has Hibernate
+	 * read them.
+	 */
+	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public OrderOutboxRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void append(List<OrderOutboxMessage> messages) {
+		jdbcTemplate.batchUpdate(INSERT, messages, BATCH_SIZE, (ps, message) -> {
+			ps.setLong(1, message.getOrderId());
+			ps.setString(2, message.getTopic());
+			ps.setBytes(3, message.getBody());
+			ps.setInt(4, message.getSchemaVersion());
+			ps.setString(5, message.getAuthToken());
+			ps.setTimestamp(6, Timestamp.from(message.getCreatedDate()), Calendar.getInstance(UTC));
+		});
+	}
+}
@@ -1,15 +1,110 @@
 package com.aspire.blog.order.repository;
 
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+import java.time.Instant;
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.service.dto.OrderAggregateDTO;
+import com.aspire.blog.order.service.dto.OrderDTO;
 
 /**
  * Spring Data repository for the Order entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository
+		extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderRepositoryCustom {
+
+	String ORDER_AGGREGATES_CACHE = "orderAggregates";
+
+	/**
+	 * Get the first orders as DTOs, without counting them. The DTOs are built
+	 * from the selected columns, no entity is loaded.
+	 *
+	 * @param pageable the page size and sort.
+	 * @return the orders, and whether there are more.
+	 */
+	@QueryHints(@QueryHint(name = READ_ONLY, value = "true"))
+	@Query("select new com.aspire.blog.order.service.dto.OrderDTO(o.id, o.name, o.amount, o.inventory, o.status,"
+			+ " o.placedDate, o.version) from Order o")
+	Slice<OrderDTO> findAllAsDto(Pageable pageable);
+
+	/**
+	 * Get the orders following an id as DTOs, without counting them. Sorted by
+	 * id, this is a range scan of the primary key whatever the position in the
+	 * table. The DTOs are built from the selected columns, no entity is loaded.
+	 *
+	 * @param id       the id to seek past.
+	 * @param pageable the page size and sort.
+	 * @return the orders, and whether there are more.
+	 */
+	@QueryHints(@QueryHint(name = READ_ONLY, value = "true"))
+	@Query("select new com.aspire.blog.order.service.dto.OrderDTO(o.id, o.name, o.amount, o.inventory, o.status,"
+			+ " o.placedDate, o.version) from Order o where o.id > :id")
+	Slice<OrderDTO> findAllAsDtoByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+	/**
+	 * Get the orders in a status since before a date as DTOs, without counting
+	 * them. Sorted by placed date, the oldest first, this is a range scan of the
+	 * {@code (status, placed_date)} index.
+	 *
+	 * @param status       the status of the orders.
+	 * @param placedBefore the date the orders were placed before.
+	 * @param pageable     the page size and sort.
+	 * @return the orders, and whether there are more.
+	 */
+	@QueryHints(@QueryHint(name = READ_ONLY, value = "true"))
+	@Query("select new com.aspire.blog.order.service.dto.OrderDTO(o.id, o.name, o.amount, o.inventory, o.status,"
+			+ " o.placedDate, o.version) from Order o where o.status = :status and o.placedDate < :placedBefore")
+	Slice<OrderDTO> findAllAsDtoByStatusAndPlacedDateBefore(@Param("status") OrderStatus status,
+			@Param("placedBefore") Instant placedBefore, Pageable pageable);
+
+	/**
+	 * Count the orders in a status since before a date, from the
+	 * {@code (status, placed_date)} index alone.
+	 *
+	 * @param status       the status of the orders.
+	 * @param placedBefore the date the orders were placed before.
+	 * @return the number of orders.
+	 */
+	long countByStatusAndPlacedDateBefore(OrderStatus status, Instant placedBefore);
+
+	/**
+	 * Aggregate all the orders. Read from the
+	 * {@code (status, amount, inventory)} index alone, and cached for
+	 * {@code application.aggregates.time-to-live}.
+	 *
+	 * @return the count, amount and inventory totals of the orders.
+	 */
+	@Cacheable(cacheNames = ORDER_AGGREGATES_CACHE, key = "#root.methodName")
+	@Query("select new com.aspire.blog.order.service.dto.OrderAggregateDTO(count(o), sum(o.amount), avg(o.amount),"
+			+ " sum(o.inventory)) from Order o")
+	OrderAggregateDTO aggregate();
 
+	/**
+	 * Aggregate the orders of each status. Read from the
+	 * {@code (status, amount, inventory)} index alone, and cached for
+	 * {@code application.aggregates.time-to-live}.
+	 *
+	 * @return the count, amount and inventory totals of the orders, by status.
+	 */
+	@Cacheable(cacheNames = ORDER_AGGREGATES_CACHE, key = "#root.methodName")
+	@Query("select new com.aspire.blog.order.service.dto.OrderAggregateDTO(o.status, count(o), sum(o.amount),"
+			+ " avg(o.amount), sum(o.inventory)) from Order o group by o.status order by o.status")
+	List<OrderAggregateDTO> aggregateByStatus();
 }
@@ -0,0 +1,39 @@
+package com.aspire.blog.order.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aspire.blog.order.config.Constants;
+import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.service.dto.OrderDTO;
+
+/**
+ * Custom queries of the {@link OrderRepository}.
+ */
+public interface OrderRepositoryCustom {
+
+	/**
+	 * Stream the orders matching a specification by id, as DTOs built from the
+	 * selected columns, reading them from the database in chunks of
+	 * {@link Constants#STREAM_FETCH_SIZE} rows. No entity is loaded. Must be
+	 * consumed and closed inside a transaction.
+	 *
+	 * @param specification the filter, or null for all the orders.
+	 * @return the stream of DTOs.
+	 */
+	Stream<OrderDTO> streamAsDto(Specification<Order> specification);
+
+	/**
+	 * Complete the orders still placed among the given ids, with a single
+	 * {@code UPDATE}. The matching rows are locked first, so that exactly the
+	 * updated ids are returned. Second-level cache entries are left untouched,
+	 * the caller evicts the returned ids.
+	 *
+	 * @param ids the ids of the orders to complete.
+	 * @return the ids of the orders which were placed, and are now completed.
+	 */
+	List<Long> completePlaced(Collection<Long> ids);
+}
@@ -0,0 +1,78 @@
+package com.aspire.blog.order.repository;
+
+import static org.hibernate.annotations.QueryHints.CACHE_MODE;
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+import static org.hibernate.annotations.QueryHints.READ_ONLY;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.CacheMode;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aspire.blog.order.config.Constants;
+import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.Order_;
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.service.dto.OrderDTO;
+
+/**
+ * Implementation of the {@link OrderRepositoryCustom} queries.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Stream<OrderDTO> streamAsDto(Specification<Order> specification) {
+		CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<OrderDTO> query = builder.createQuery(OrderDTO.class);
+		Root<Order> root = query.from(Order.class);
+		query.select(builder.construct(OrderDTO.class, root.get(Order_.id), root.get(Order_.name),
+				root.get(Order_.amount), root.get(Order_.inventory), root.get(Order_.status),
+				root.get(Order_.placedDate), root.get(Order_.version)));
+		if (specification != null) {
+			Predicate predicate = specification.toPredicate(root, query, builder);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		query.orderBy(builder.asc(root.get(Order_.id)));
+		return entityManager.createQuery(query).setHint(FETCH_SIZE, Integer.valueOf(Constants.STREAM_FETCH_SIZE))
+				.setHint(READ_ONLY, true).setHint(CACHE_MODE, CacheMode.IGNORE).getResultStream();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Long> completePlaced(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Number> locked = entityManager
+				.createNativeQuery("select id from jhi_order where id in (:ids) and status = :status for update")
+				.setParameter("ids", ids).setParameter("status", OrderStatus.PLACED.name()).getResultList();
+		List<Long> completed = locked.stream().map(Number::longValue).collect(Collectors.toList());
+		if (completed.isEmpty()) {
+			return completed;
+		}
+		// An empty query space keeps Hibernate from invalidating the whole Order cache region
+		entityManager
+				.createNativeQuery("update jhi_order set status = :status, version = version + 1 where id in (:ids)")
+				.setParameter("status", OrderStatus.COMPLETED.name()).setParameter("ids", completed)
+				.unwrap(NativeQuery.class).addSynchronizedQuerySpace("")
+				.executeUpdate();
+		return completed;
+	}
+}
@@ -0,0 +1,14 @@
+package com.aspire.blog.order.service;
+
+/**
+ * Thrown when an export job cannot be accepted because too many exports are
+ * already queued or running.
+ */
+public class ExportJobRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ExportJobRejectedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,14 @@
+package com.aspire.blog.order.service;
+
+/**
+ * Thrown when a message cannot be sent to Kafka because too many messages are
+ * already waiting for the broker to acknowledge them.
+ */
+public class KafkaBackpressureException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public KafkaBackpressureException(String message) {
+		super(message);
+	}
+}
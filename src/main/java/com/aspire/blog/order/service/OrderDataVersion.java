@@ -0,0 +1,23 @@
+package com.aspire.blog.order.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the {@code jhi_order} data, bumped every time a change to the
+ * orders is committed by this instance.
+ */
+@Component
+public class OrderDataVersion {
+
+	private final AtomicLong version = new AtomicLong();
+
+	public long current() {
+		return version.get();
+	}
+
+	public void increment() {
+		version.incrementAndGet();
+	}
+}
@@ -0,0 +1,192 @@
+package com.aspire.blog.order.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.service.dto.OrderEventDTO;
+
+/**
+ * Binary encoding of the {@link OrderEventDTO} sent to Kafka.
+ * <p>
+ * The schema version is sent in the {@value #SCHEMA_VERSION_HEADER} Kafka
+ * header, as a single byte. Version 1 is, in this order:
+ * <ul>
+ * <li>one byte of flags, bit {@code n} set when the {@code n}th field below is
+ * present;</li>
+ * <li>the id, as an unsigned varint;</li>
+ * <li>the name, as the unsigned varint length of its UTF-8 bytes, then the
+ * bytes;</li>
+ * <li>the amount, as an 8 bytes big-endian IEEE 754 double;</li>
+ * <li>the inventory, as a zigzag varint;</li>
+ * <li>the status, as one byte: its index in {@link #STATUSES};</li>
+ * <li>the placed date, as a zigzag varint of milliseconds since the
+ * epoch;</li>
+ * <li>the version, as an unsigned varint.</li>
+ * </ul>
+ * Varints are little-endian groups of 7 bits, the high bit set on every byte
+ * but the last, as in Protocol Buffers. A new field is added as a new flag, a
+ * change to an existing one needs a new schema version.
+ */
+public final class OrderEventCodec {
+
+	public static final String SCHEMA_VERSION_HEADER = "order-event-version";
+
+	public static final byte SCHEMA_VERSION = 1;
+
+	/**
+	 * The statuses by code. Codes are part of the schema: append new statuses,
+	 * never reorder them.
+	 */
+	private static final OrderStatus[] STATUSES = { OrderStatus.PLACED, OrderStatus.COMPLETED, OrderStatus.FAILED,
+			OrderStatus.CANCELLED };
+
+	private static final int ID = 1;
+
+	private static final int NAME = 1 << 1;
+
+	private static final int AMOUNT = 1 << 2;
+
+	private static final int INVENTORY = 1 << 3;
+
+	private static final int STATUS = 1 << 4;
+
+	private static final int PLACED_DATE = 1 << 5;
+
+	private static final int VERSION = 1 << 6;
+
+	private static final int MAX_VARINT_SIZE = 10;
+
+	private OrderEventCodec() {
+	}
+
+	/**
+	 * Encode an event with the current {@link #SCHEMA_VERSION}.
+	 *
+	 * @param event the event.
+	 * @return the encoded event.
+	 */
+	public static byte[] encode(OrderEventDTO event) {
+		byte[] name = event.getName() == null ? null : event.getName().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer buffer = ByteBuffer
+				.allocate(1 + 6 * MAX_VARINT_SIZE + (name == null ? 0 : name.length) + Double.BYTES + 1);
+		buffer.put((byte) 0);
+		int flags = 0;
+		if (event.getId() != null) {
+			flags |= ID;
+			putVarint(buffer, event.getId());
+		}
+		if (name != null) {
+			flags |= NAME;
+			putVarint(buffer, name.length);
+			buffer.put(name);
+		}
+		if (event.getAmount() != null) {
+			flags |= AMOUNT;
+			buffer.putDouble(event.getAmount());
+		}
+		if (event.getInventory() != null) {
+			flags |= INVENTORY;
+			putVarint(buffer, zigzag(event.getInventory()));
+		}
+		if (event.getStatus() != null) {
+			flags |= STATUS;
+			buffer.put(statusCode(event.getStatus()));
+		}
+		if (event.getPlacedDate() != null) {
+			flags |= PLACED_DATE;
+			putVarint(buffer, zigzag(event.getPlacedDate().toEpochMilli()));
+		}
+		if (event.getVersion() != null) {
+			flags |= VERSION;
+			putVarint(buffer, event.getVersion());
+		}
+		buffer.put(0, (byte) flags);
+		return Arrays.copyOf(buffer.array(), buffer.position());
+	}
+
+	/**
+	 * Decode an event.
+	 *
+	 * @param schemaVersion the schema version the event was encoded with.
+	 * @param bytes         the encoded event.
+	 * @return the event.
+	 * @throws IllegalArgumentException if the schema version is not supported or
+	 *                                  the event is malformed.
+	 */
+	public static OrderEventDTO decode(byte schemaVersion, byte[] bytes) {
+		if (schemaVersion != SCHEMA_VERSION) {
+			throw new IllegalArgumentException("Unsupported order event schema version " + schemaVersion);
+		}
+		try {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			int flags = buffer.get();
+			OrderEventDTO event = new OrderEventDTO();
+			if ((flags & ID) != 0) {
+				event.setId(getVarint(buffer));
+			}
+			if ((flags & NAME) != 0) {
+				byte[] name = new byte[Math.toIntExact(getVarint(buffer))];
+				buffer.get(name);
+				event.setName(new String(name, StandardCharsets.UTF_8));
+			}
+			if ((flags & AMOUNT) != 0) {
+				event.setAmount(buffer.getDouble());
+			}
+			if ((flags & INVENTORY) != 0) {
+				event.setInventory(unzigzag(getVarint(buffer)));
+			}
+			if ((flags & STATUS) != 0) {
+				event.setStatus(STATUSES[buffer.get()]);
+			}
+			if ((flags & PLACED_DATE) != 0) {
+				event.setPlacedDate(Instant.ofEpochMilli(unzigzag(getVarint(buffer))));
+			}
+			if ((flags & VERSION) != 0) {
+				event.setVersion(getVarint(buffer));
+			}
+			return event;
+		} catch (RuntimeException ex) {
+			throw new IllegalArgumentException("Malformed order event", ex);
+		}
+	}
+
+	private static byte statusCode(OrderStatus status) {
+		for (byte code = 0; code < STATUSES.length; code++) {
+			if (STATUSES[code] == status) {
+				return code;
+			}
+		}
+		throw new IllegalArgumentException("No code for order status " + status);
+	}
+
+	private static void putVarint(ByteBuffer buffer, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static long getVarint(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed varint");
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
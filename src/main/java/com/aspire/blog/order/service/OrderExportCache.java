@@ -0,0 +1,215 @@
+package com.aspire.blog.order.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.report.CachedExportResource;
+import com.aspire.blog.order.report.ExportType;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory cache of rendered exports, keyed by export type, filter criteria
+ * and {@link OrderDataVersion}.
+ * <p>
+ * A change to the orders bumps the data version, so cached exports are never
+ * served for data that changed on this instance. An export is only cached if
+ * the data version read before rendering it is still current once rendered,
+ * as the rendering may otherwise have seen part of a change. Writes made by
+ * other instances are only picked up once the entry expires. Entries are
+ * evicted least recently used first, by count and by total size. Hits, misses
+ * and evictions are published with the standard Micrometer cache meter names,
+ * tagged {@code cache=orderExports}.
+ */
+@Component
+public class OrderExportCache {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderExportCache.class);
+
+	private static final String CACHE_NAME = "orderExports";
+
+	private final ApplicationProperties.Export.Cache properties;
+
+	private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private long totalBytes;
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private final Counter evictions;
+
+	public OrderExportCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+		this.properties = applicationProperties.getExport().getCache();
+		this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+				.description("The number of times a cached export was served").register(meterRegistry);
+		this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+				.description("The number of times an export had to be rendered").register(meterRegistry);
+		this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME)
+				.description("The number of cached exports evicted").register(meterRegistry);
+		Gauge.builder("cache.size", this, OrderExportCache::size).tag("cache", CACHE_NAME)
+				.description("The number of cached exports").register(meterRegistry);
+	}
+
+	/**
+	 * Get a cached export.
+	 *
+	 * @param type     the export type.
+	 * @param criteria the filters of the export.
+	 * @param version  the current data version.
+	 * @return the cached export, empty on a miss.
+	 */
+	public synchronized Optional<Resource> get(ExportType type, OrderCriteria criteria, long version) {
+		if (!properties.isEnabled()) {
+			return Optional.empty();
+		}
+		Key key = new Key(type, criteria, version);
+		Entry entry = entries.get(key);
+		if (entry != null && entry.isExpired(Instant.now())) {
+			remove(key);
+			entry = null;
+		}
+		if (entry == null) {
+			misses.increment();
+			return Optional.empty();
+		}
+		hits.increment();
+		return Optional.of(new CachedExportResource(entry.content, type.getDownloadName()));
+	}
+
+	/**
+	 * Cache a freshly rendered export, unless it is too big. The exported file is
+	 * read directly, and left untouched.
+	 *
+	 * @param type     the export type.
+	 * @param criteria the filters of the export.
+	 * @param version  the data version the export was rendered from.
+	 * @param exported the exported file.
+	 */
+	public void put(ExportType type, OrderCriteria criteria, long version, Resource exported) {
+		if (!properties.isEnabled() || !exported.isFile()) {
+			return;
+		}
+		byte[] content;
+		try {
+			if (exported.contentLength() > properties.getMaxEntryBytes()) {
+				return;
+			}
+			content = Files.readAllBytes(exported.getFile().toPath());
+		} catch (IOException ex) {
+			log.warn("Could not cache export {}: {}", exported, ex.getMessage());
+			return;
+		}
+		synchronized (this) {
+			removeOlderVersions(version);
+			Entry previous = entries.put(new Key(type, criteria, version),
+					new Entry(version, content, Instant.now().plus(properties.getTimeToLive())));
+			if (previous != null) {
+				totalBytes -= previous.content.length;
+			}
+			totalBytes += content.length;
+			Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+			while ((entries.size() > properties.getMaxEntries() || totalBytes > properties.getMaxBytes())
+					&& eldest.hasNext()) {
+				totalBytes -= eldest.next().getValue().content.length;
+				eldest.remove();
+				evictions.increment();
+			}
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private void removeOlderVersions(long version) {
+		Iterator<Entry> iterator = entries.values().iterator();
+		while (iterator.hasNext()) {
+			Entry entry = iterator.next();
+			if (entry.version < version) {
+				totalBytes -= entry.content.length;
+				iterator.remove();
+				evictions.increment();
+			}
+		}
+	}
+
+	private void remove(Key key) {
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			totalBytes -= entry.content.length;
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * The key of a cached export. The criteria are compared by value, they are not
+	 * to be changed once used in a key.
+	 */
+	private static final class Key {
+
+		private final ExportType type;
+
+		private final OrderCriteria criteria;
+
+		private final long version;
+
+		private Key(ExportType type, OrderCriteria criteria, long version) {
+			this.type = type;
+			this.criteria = criteria != null ? criteria : new OrderCriteria();
+			this.version = version;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			final Key that = (Key) o;
+			return type == that.type && version == that.version && criteria.equals(that.criteria);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, criteria, version);
+		}
+	}
+
+	private static final class Entry {
+
+		private final long version;
+
+		private final byte[] content;
+
+		private final Instant expiry;
+
+		private Entry(long version, byte[] content, Instant expiry) {
+			this.version = version;
+			this.content = content;
+			this.expiry = expiry;
+		}
+
+		private boolean isExpired(Instant now) {
+			return now.isAfter(expiry);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package com.aspire.blog.order.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.report.ExportFileResource;
+import com.aspire.blog.order.service.dto.ExportJobDTO;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+/**
+ * Service running exports of the orders in the background.
+ * <p>
+ * Jobs run on the {@code taskExecutor}. At most
+ * {@code application.export.max-concurrent-jobs} jobs may be queued or running
+ * at once, so that exports cannot take over the executor. Finished jobs and
+ * their files are kept for {@code application.export.job-retention}.
+ */
+@Service
+public class OrderExportJobService {
+
+	private final Logger log = LoggerFactory.getLogger(OrderExportJobService.class);
+
+	private final OrderService orderService;
+
+	private final Executor taskExecutor;
+
+	private final Semaphore permits;
+
+	private final Duration jobRetention;
+
+	private final ConcurrentMap<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+	public OrderExportJobService(OrderService orderService, @Qualifier("taskExecutor") Executor taskExecutor,
+			ApplicationProperties applicationProperties) {
+		this.orderService = orderService;
+		this.taskExecutor = taskExecutor;
+		this.permits = new Semaphore(applicationProperties.getExport().getMaxConcurrentJobs());
+		this.jobRetention = applicationProperties.getExport().getJobRetention();
+	}
+
+	/**
+	 * Queue an export of the orders.
+	 *
+	 * @param type     the export type.
+	 * @param criteria the filters the exported orders match, null for all.
+	 * @return the queued job.
+	 * @throws ExportJobRejectedException if too many exports are already running.
+	 */
+	public ExportJobDTO submit(String type, OrderCriteria criteria) {
+		log.debug("Request to submit an export job of type : {}", type);
+		if (!permits.tryAcquire()) {
+			throw new ExportJobRejectedException("Too many export jobs are running, try again later");
+		}
+		ExportJob job = new ExportJob(UUID.randomUUID().toString(), type, criteria);
+		jobs.put(job.id, job);
+		try {
+			taskExecutor.execute(() -> run(job));
+		} catch (RejectedExecutionException ex) {
+			jobs.remove(job.id);
+			permits.release();
+			throw new ExportJobRejectedException("Export job could not be queued, try again later");
+		}
+		return job.toDto();
+	}
+
+	/**
+	 * Get one export job by id.
+	 *
+	 * @param id the id of the job.
+	 * @return the job.
+	 */
+	public Optional<ExportJobDTO> findOne(String id) {
+		return Optional.ofNullable(jobs.get(id)).map(ExportJob::toDto);
+	}
+
+	/**
+	 * Get the exported file of a completed job.
+	 *
+	 * @param id the id of the job.
+	 * @return the exported file, empty if the job does not exist or is not
+	 *         completed.
+	 */
+	public Optional<Resource> findResult(String id) {
+		return Optional.ofNullable(jobs.get(id)).map(job -> job.result);
+	}
+
+	/**
+	 * Forget the jobs which finished longer than the retention period ago, and
+	 * delete their files.
+	 */
+	@Scheduled(fixedDelay = 60000)
+	public void removeExpiredJobs() {
+		Instant expiry = Instant.now().minus(jobRetention);
+		jobs.values().removeIf(job -> {
+			if (job.finishedDate == null || job.finishedDate.isAfter(expiry)) {
+				return false;
+			}
+			if (job.result instanceof ExportFileResource) {
+				((ExportFileResource) job.result).delete();
+			}
+			return true;
+		});
+	}
+
+	private void run(ExportJob job) {
+		job.status = ExportJobDTO.Status.RUNNING;
+		try {
+			Resource result = orderService.exportAll(job.type, job.criteria);
+			if (result == null) {
+				job.finish(ExportJobDTO.Status.FAILED, null, "Export failed");
+			} else {
+				// The file is downloaded from the job, possibly several times, until the job expires
+				if (result instanceof ExportFileResource) {
+					result = ((ExportFileResource) result).retain();
+				}
+				job.finish(ExportJobDTO.Status.COMPLETED, result, null);
+			}
+		} catch (RuntimeException ex) {
+			log.error("Export job {} failed", job.id, ex);
+			job.finish(ExportJobDTO.Status.FAILED, null, ex.getMessage());
+		} finally {
+			permits.release();
+		}
+	}
+
+	private static final class ExportJob {
+
+		private final String id;
+
+		private final String type;
+
+		private final OrderCriteria criteria;
+
+		private final Instant createdDate = Instant.now();
+
+		private volatile ExportJobDTO.Status status = ExportJobDTO.Status.QUEUED;
+
+		private volatile Resource result;
+
+		private volatile String errorMessage;
+
+		private volatile Instant finishedDate;
+
+		private ExportJob(String id, String type, OrderCriteria criteria) {
+			this.id = id;
+			this.type = type;
+			this.criteria = criteria;
+		}
+
+		private void finish(ExportJobDTO.Status status, Resource result, String errorMessage) {
+			this.result = result;
+			this.errorMessage = errorMessage;
+			this.finishedDate = Instant.now();
+			this.status = status;
+		}
+
+		private ExportJobDTO toDto() {
+			ExportJobDTO exportJobDTO = new ExportJobDTO();
+			exportJobDTO.setId(id);
+			exportJobDTO.setType(type);
+			exportJobDTO.setStatus(status);
+			exportJobDTO.setCreatedDate(createdDate);
+			exportJobDTO.setFinishedDate(finishedDate);
+			exportJobDTO.setErrorMessage(errorMessage);
+			return exportJobDTO;
+		}
+	}
+}
@@ -1,31 +1,221 @@
 package com.aspire.blog.order.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import com.aspire.blog.order.config.ApplicationProperties;
 import com.aspire.blog.order.security.SecurityUtils;
-import com.google.gson.JsonObject;
+import com.aspire.blog.order.service.dto.OrderEventDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
+/**
+ * Sends messages to Kafka without waiting for the broker. Order events are
+ * encoded by the {@link OrderEventCodec}, the token of the user sending a
+ * message goes in the {@value #AUTH_TOKEN_HEADER} header.
+ * <p>
+ * The messages sent and not acknowledged yet are bounded by
+ * {@code application.kafka.max-in-flight}: once reached, a send waits up to
+ * {@code application.kafka.acquire-timeout} then is rejected, instead of
+ * filling the producer buffer and blocking the caller for
+ * {@code max.block.ms}. The latency of the sends is recorded per topic as
+ * {@code orders.kafka.send}, their failures as {@code orders.kafka.send.errors}
+ * and the rejected sends as {@code orders.kafka.send.rejected}.
+ */
 @Service
 public class OrderKafkaProducer {
 
 	private static final Logger log = LoggerFactory.getLogger(OrderKafkaProducer.class);
 
-	private KafkaTemplate<String, String> kafkaTemplate;
+	public static final String AUTH_TOKEN_HEADER = "authorization";
+
+	private static final String TOPIC_TAG = "topic";
+
+	private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+	private final ApplicationProperties.Kafka properties;
+
+	private final MeterRegistry meterRegistry;
 
-	public OrderKafkaProducer(KafkaTemplate<String, String> kafkaTemplate) {
+	private final Semaphore inFlight;
+
+	public OrderKafkaProducer(KafkaTemplate<String, byte[]> kafkaTemplate, ApplicationProperties applicationProperties,
+			MeterRegistry meterRegistry) {
 		this.kafkaTemplate = kafkaTemplate;
+		this.properties = applicationProperties.getKafka();
+		this.meterRegistry = meterRegistry;
+		this.inFlight = new Semaphore(properties.getMaxInFlight());
+		Gauge.builder("orders.kafka.send.in-flight", inFlight,
+				semaphore -> properties.getMaxInFlight() - semaphore.availablePermits())
+				.description("The number of Kafka messages sent and not acknowledged yet").register(meterRegistry);
+	}
+
+	/**
+	 * Send a message to a topic, along with the token of the current user.
+	 *
+	 * @param topic   the topic.
+	 * @param message the message.
+	 * @return the result of the send.
+	 * @throws KafkaBackpressureException if too many messages are in flight.
+	 */
+	public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String message) {
+		return sendMessage(topic, null, message);
+	}
+
+	/**
+	 * Send a keyed message to a topic, along with the token of the current user.
+	 * The messages with the same key go to the same partition, in order.
+	 *
+	 * @param topic   the topic.
+	 * @param key     the key of the message, or {@code null}.
+	 * @param message the message, sent as UTF-8.
+	 * @return the result of the send.
+	 * @throws KafkaBackpressureException if too many messages are in flight.
+	 */
+	public CompletableFuture<SendResult<String, byte[]>> sendMessage(String topic, String key, String message) {
+		log.info("Producing message to {} with key {} : {}", topic, key, message);
+
+		return sendAsync(topic, key, message.getBytes(StandardCharsets.UTF_8), headers(null, currentAuthToken()));
 	}
 
-	public void sendMessage(String topic, String message) {
-		log.info("Producing message to {} : {}", topic, message);
+	/**
+	 * Send order events to a topic, keyed by order id, along with the token of the
+	 * current user, without waiting: neither for Kafka nor for in-flight messages
+	 * to complete. An event which cannot be sent right away because too many
+	 * messages are in flight is dropped, and counted as rejected. An order which
+	 * failed before getting an id has no key.
+	 *
+	 * @param topic  the topic.
+	 * @param events the events.
+	 * @return completed once every event was acknowledged, exceptionally if one of
+	 *         them was rejected or failed.
+	 */
+	public CompletableFuture<Void> sendEvents(String topic, List<OrderEventDTO> events) {
+		log.info("Producing {} order events to {}", events.size(), topic);
+
+		List<Header> headers = headers(OrderEventCodec.SCHEMA_VERSION, currentAuthToken());
+		List<CompletableFuture<SendResult<String, byte[]>>> results = new ArrayList<>(events.size());
+		for (OrderEventDTO event : events) {
+			String key = event.getId() == null ? null : event.getId().toString();
+			if (!tryAcquire(topic, 0L)) {
+				log.warn("Dropped order event to {} with key {}: too many messages are waiting for Kafka", topic,
+						key);
+				CompletableFuture<SendResult<String, byte[]>> rejected = new CompletableFuture<>();
+				rejected.completeExceptionally(
+						new KafkaBackpressureException("Too many messages are waiting for Kafka"));
+				results.add(rejected);
+				continue;
+			}
+			results.add(send(topic, key, OrderEventCodec.encode(event), headers));
+		}
+		return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]));
+	}
+
+	/**
+	 * Send a message. The returned future completes on the producer network
+	 * thread, dependent stages doing more than bookkeeping should use the async
+	 * variants.
+	 *
+	 * @param topic   the topic.
+	 * @param key     the key of the message, or {@code null}.
+	 * @param value   the message.
+	 * @param headers the headers of the message, see {@link #headers}.
+	 * @return the result of the send.
+	 * @throws KafkaBackpressureException if too many messages are in flight.
+	 */
+	public CompletableFuture<SendResult<String, byte[]>> sendAsync(String topic, String key, byte[] value,
+			List<Header> headers) {
+		if (!tryAcquire(topic, properties.getAcquireTimeout().toMillis())) {
+			throw new KafkaBackpressureException("Too many messages are waiting for Kafka, try again later");
+		}
+		return send(topic, key, value, headers);
+	}
+
+	/**
+	 * Send a message, once its in-flight permit acquired.
+	 */
+	private CompletableFuture<SendResult<String, byte[]>> send(String topic, String key, byte[] value,
+			List<Header> headers) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		CompletableFuture<SendResult<String, byte[]>> result = new CompletableFuture<>();
+		try {
+			// The record owns its headers list, the same headers are sent with several records
+			ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, null, key, value,
+					new ArrayList<>(headers));
+			this.kafkaTemplate.send(record).addCallback(sendResult -> {
+				inFlight.release();
+				sample.stop(meterRegistry.timer("orders.kafka.send", TOPIC_TAG, topic));
+				result.complete(sendResult);
+			}, ex -> {
+				failed(topic, ex);
+				result.completeExceptionally(ex);
+			});
+		} catch (RuntimeException ex) {
+			failed(topic, ex);
+			result.completeExceptionally(ex);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the token of the current user, as the value of the
+	 *         {@value #AUTH_TOKEN_HEADER} header.
+	 */
+	public static Optional<String> currentAuthToken() {
+		return SecurityUtils.getCurrentUserJWT().map(s -> String.format("%s %s", "Bearer", s));
+	}
+
+	/**
+	 * The headers of a message.
+	 *
+	 * @param schemaVersion the {@link OrderEventCodec} schema version of an order
+	 *                      event, or {@code null}.
+	 * @param authToken     the token of the user sending the message.
+	 * @return the headers.
+	 */
+	public static List<Header> headers(Byte schemaVersion, Optional<String> authToken) {
+		List<Header> headers = new ArrayList<>(2);
+		if (schemaVersion != null) {
+			headers.add(new RecordHeader(OrderEventCodec.SCHEMA_VERSION_HEADER, new byte[] { schemaVersion }));
+		}
+		authToken.ifPresent(
+				token -> headers.add(new RecordHeader(AUTH_TOKEN_HEADER, token.getBytes(StandardCharsets.UTF_8))));
+		return headers;
+	}
+
+	private boolean tryAcquire(String topic, long timeoutMillis) {
+		boolean acquired;
+		try {
+			acquired = inFlight.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			meterRegistry.counter("orders.kafka.send.rejected", TOPIC_TAG, topic).increment();
+		}
+		return acquired;
+	}
 
-		JsonObject jsonObject = new JsonObject();
-		jsonObject.addProperty("data", message);
-		SecurityUtils.getCurrentUserJWT()
-				.ifPresent(s -> jsonObject.addProperty("authToken", String.format("%s %s", "Bearer", s)));
-		this.kafkaTemplate.send(topic, jsonObject.toString());
+	private void failed(String topic, Throwable ex) {
+		inFlight.release();
+		meterRegistry.counter("orders.kafka.send.errors", TOPIC_TAG, topic).increment();
+		log.warn("Could not send message to {}: {}", topic, ex.getMessage());
 	}
 }
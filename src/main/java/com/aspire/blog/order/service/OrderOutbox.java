@@ -0,0 +1,51 @@
+package com.aspire.blog.order.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+import com.aspire.blog.order.repository.OrderOutboxRepository;
+import com.aspire.blog.order.service.mapper.OrderMapper;
+
+/**
+ * Writes the Kafka events about orders to the {@code jhi_order_outbox} table,
+ * in the transaction changing the orders. The events are sent by the
+ * {@link OrderOutboxRelay} once committed, so they are neither lost if the
+ * process stops right after the commit, nor sent for rolled back changes, and
+ * the request does not wait for Kafka.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderOutbox {
+
+	private final OrderOutboxRepository orderOutboxRepository;
+
+	private final OrderMapper orderMapper;
+
+	public OrderOutbox(OrderOutboxRepository orderOutboxRepository, OrderMapper orderMapper) {
+		this.orderOutboxRepository = orderOutboxRepository;
+		this.orderMapper = orderMapper;
+	}
+
+	/**
+	 * Append an event about each order, encoded by the {@link OrderEventCodec}.
+	 *
+	 * @param topic  the topic to send the events to.
+	 * @param orders the orders, with their ids.
+	 */
+	public void appendOrders(String topic, List<Order> orders) {
+		String authToken = OrderKafkaProducer.currentAuthToken().orElse(null);
+		Instant now = Instant.now();
+		orderOutboxRepository.append(orders.stream()
+				.map(order -> new OrderOutboxMessage().topic(topic).orderId(order.getId())
+						.body(OrderEventCodec.encode(orderMapper.toEventDto(order)))
+						.schemaVersion((int) OrderEventCodec.SCHEMA_VERSION).authToken(authToken).createdDate(now))
+				.collect(Collectors.toList()));
+	}
+}
@@ -0,0 +1,147 @@
+package com.aspire.blog.order.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+import com.aspire.blog.order.repository.OrderOutboxRepository;
+
+/**
+ * Sends the messages of the {@link OrderOutbox} to Kafka, in batches.
+ * <p>
+ * A batch is locked, sent in id order, then deleted once Kafka acknowledged it,
+ * all in one transaction. Concurrent relays wait for each other on the lock, so
+ * the messages of an order are sent in the order they were written, keyed by
+ * the order id. The lock, and a database connection, are thus held while
+ * sending: a batch stops at the first message Kafka does not take right away,
+ * and waits at most {@code application.outbox.send-timeout} overall for the
+ * acknowledgements, keeping the messages from the first one not acknowledged.
+ * <p>
+ * Delivery is at least once: a message is sent again if the relay stops before
+ * the delete commits, and the messages sent after one which failed or timed
+ * out may have reached Kafka already, and are sent again with it.
+ */
+@Component
+public class OrderOutboxRelay {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderOutboxRelay.class);
+
+	/**
+	 * Messages written before the binary order events, with a JSON payload.
+	 */
+	private static final int LEGACY_SCHEMA_VERSION = 0;
+
+	private final OrderOutboxRepository orderOutboxRepository;
+
+	private final OrderKafkaProducer orderKafkaProducer;
+
+	private final ApplicationProperties.Outbox properties;
+
+	private final TransactionTemplate transactionTemplate;
+
+	public OrderOutboxRelay(OrderOutboxRepository orderOutboxRepository, OrderKafkaProducer orderKafkaProducer,
+			ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
+		this.orderOutboxRepository = orderOutboxRepository;
+		this.orderKafkaProducer = orderKafkaProducer;
+		this.properties = applicationProperties.getOutbox();
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		// No gap locks: writers keep appending messages while a batch is locked
+		this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+	}
+
+	/**
+	 * Relay the pending messages, batch after batch.
+	 */
+	@Scheduled(fixedDelay = 1000)
+	public void relayPending() {
+		try {
+			int relayed;
+			do {
+				relayed = relayBatch();
+			} while (relayed == properties.getBatchSize());
+		} catch (RuntimeException ex) {
+			log.warn("Could not relay the order outbox, will retry: {}", ex.getMessage());
+		}
+	}
+
+	/**
+	 * Relay the oldest pending messages.
+	 *
+	 * @return the number of messages relayed.
+	 */
+	public int relayBatch() {
+		return transactionTemplate.execute(status -> {
+			List<OrderOutboxMessage> batch = orderOutboxRepository
+					.findOldestForUpdate(PageRequest.of(0, properties.getBatchSize()));
+			if (batch.isEmpty()) {
+				return 0;
+			}
+			List<CompletableFuture<SendResult<String, byte[]>>> results = new ArrayList<>(batch.size());
+			try {
+				for (OrderOutboxMessage message : batch) {
+					CompletableFuture<SendResult<String, byte[]>> result = send(message);
+					results.add(result);
+					if (result.isCompletedExceptionally()) {
+						break;
+					}
+				}
+			} catch (KafkaBackpressureException ex) {
+				// Kafka is slow, relay the messages already sent and leave the rest for later
+				log.debug("Order outbox relay throttled: {}", ex.getMessage());
+			}
+			long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+			int acknowledged = 0;
+			while (acknowledged < results.size() && acknowledged(results.get(acknowledged), deadline)) {
+				acknowledged++;
+			}
+			// Keep the rest of the batch, so that it is sent again in order
+			orderOutboxRepository.deleteInBatch(batch.subList(0, acknowledged));
+			log.debug("Relayed {} of {} order outbox messages", acknowledged, batch.size());
+			return acknowledged;
+		});
+	}
+
+	private CompletableFuture<SendResult<String, byte[]>> send(OrderOutboxMessage message) {
+		String key = message.getOrderId().toString();
+		if (message.getSchemaVersion() == LEGACY_SCHEMA_VERSION) {
+			return orderKafkaProducer.sendAsync(message.getTopic(), key,
+					message.getPayload().getBytes(StandardCharsets.UTF_8), Collections.emptyList());
+		}
+		return orderKafkaProducer.sendAsync(message.getTopic(), key, message.getBody(), OrderKafkaProducer
+				.headers(message.getSchemaVersion().byteValue(), Optional.ofNullable(message.getAuthToken())));
+	}
+
+	/**
+	 * Wait for a message to be acknowledged, until the deadline of its batch.
+	 */
+	private boolean acknowledged(CompletableFuture<SendResult<String, byte[]>> result, long deadline) {
+		try {
+			result.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			return true;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException | TimeoutException ex) {
+			log.warn("Could not send an order outbox message: {}", ex.getMessage());
+			return false;
+		}
+	}
+}
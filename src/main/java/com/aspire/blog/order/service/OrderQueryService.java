@@ -0,0 +1,171 @@
+package com.aspire.blog.order.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.Order_;
+import com.aspire.blog.order.report.OrderReportQuery;
+import com.aspire.blog.order.repository.OrderRepository;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.RangeFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+/**
+ * Service for executing complex queries for {@link Order} entities in the
+ * database. The main input is a {@link OrderCriteria} which gets converted to
+ * {@link Specification}, in a way that all the filters must apply. It returns
+ * a {@link List} of {@link Order} which fulfills the criteria.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OrderQueryService {
+
+	private final Logger log = LoggerFactory.getLogger(OrderQueryService.class);
+
+	private final OrderRepository orderRepository;
+
+	public OrderQueryService(OrderRepository orderRepository) {
+		this.orderRepository = orderRepository;
+	}
+
+	/**
+	 * Return a {@link List} of {@link Order} which matches the criteria from the
+	 * database, ordered by id.
+	 *
+	 * @param criteria The object which holds all the filters, which the entities
+	 *                 should match.
+	 * @return the matching entities.
+	 */
+	public List<Order> findByCriteria(OrderCriteria criteria) {
+		log.debug("find by criteria : {}", criteria);
+		return orderRepository.findAll(createSpecification(criteria), Sort.by("id"));
+	}
+
+	/**
+	 * Return the number of matching entities in the database.
+	 *
+	 * @param criteria The object which holds all the filters, which the entities
+	 *                 should match.
+	 * @return the number of matching entities.
+	 */
+	public long countByCriteria(OrderCriteria criteria) {
+		log.debug("count by criteria : {}", criteria);
+		return orderRepository.count(createSpecification(criteria));
+	}
+
+	/**
+	 * Function to convert {@link OrderCriteria} to a {@link Specification}. Every
+	 * operator of every filter becomes a predicate of the query, so that the
+	 * database, and its indexes, do the filtering. All of them must hold, as in
+	 * the {@link OrderReportQuery} of the report exports.
+	 *
+	 * @param criteria The object which holds all the filters, which the entities
+	 *                 should match.
+	 * @return the matching {@link Specification} of the entity.
+	 */
+	public Specification<Order> createSpecification(OrderCriteria criteria) {
+		Specification<Order> specification = Specification.where(null);
+		if (criteria != null) {
+			if (criteria.getId() != null) {
+				specification = specification.and(rangeSpecification(criteria.getId(), Order_.id));
+			}
+			if (criteria.getName() != null) {
+				specification = specification.and(stringSpecification(criteria.getName(), Order_.name));
+				if (criteria.getName().getStartsWith() != null) {
+					specification = specification.and(nameStartsWith(criteria.getName().getStartsWith()));
+				}
+			}
+			if (criteria.getAmount() != null) {
+				specification = specification.and(rangeSpecification(criteria.getAmount(), Order_.amount));
+			}
+			if (criteria.getStatus() != null) {
+				specification = specification.and(filterSpecification(criteria.getStatus(), Order_.status));
+			}
+		}
+		return specification;
+	}
+
+	private static <X> Specification<Order> filterSpecification(Filter<X> filter,
+			SingularAttribute<? super Order, X> field) {
+		return (root, query, builder) -> builder
+				.and(filterPredicates(filter, root.get(field), builder).toArray(new Predicate[0]));
+	}
+
+	private static <X extends Comparable<? super X>> Specification<Order> rangeSpecification(RangeFilter<X> filter,
+			SingularAttribute<? super Order, X> field) {
+		return (root, query, builder) -> {
+			Path<X> path = root.get(field);
+			List<Predicate> predicates = filterPredicates(filter, path, builder);
+			if (filter.getGreaterThan() != null) {
+				predicates.add(builder.greaterThan(path, filter.getGreaterThan()));
+			}
+			if (filter.getGreaterThanOrEqual() != null) {
+				predicates.add(builder.greaterThanOrEqualTo(path, filter.getGreaterThanOrEqual()));
+			}
+			if (filter.getLessThan() != null) {
+				predicates.add(builder.lessThan(path, filter.getLessThan()));
+			}
+			if (filter.getLessThanOrEqual() != null) {
+				predicates.add(builder.lessThanOrEqualTo(path, filter.getLessThanOrEqual()));
+			}
+			return builder.and(predicates.toArray(new Predicate[0]));
+		};
+	}
+
+	private static Specification<Order> stringSpecification(StringFilter filter,
+			SingularAttribute<? super Order, String> field) {
+		return (root, query, builder) -> {
+			Path<String> path = root.get(field);
+			List<Predicate> predicates = filterPredicates(filter, path, builder);
+			if (filter.getContains() != null) {
+				predicates.add(builder.like(builder.upper(path), OrderReportQuery.containsPattern(filter.getContains()),
+						OrderReportQuery.LIKE_ESCAPE));
+			}
+			if (filter.getDoesNotContain() != null) {
+				predicates.add(builder.notLike(builder.upper(path),
+						OrderReportQuery.containsPattern(filter.getDoesNotContain()), OrderReportQuery.LIKE_ESCAPE));
+			}
+			return builder.and(predicates.toArray(new Predicate[0]));
+		};
+	}
+
+	private static <X> List<Predicate> filterPredicates(Filter<X> filter, Path<X> path, CriteriaBuilder builder) {
+		List<Predicate> predicates = new ArrayList<>();
+		if (filter.getEquals() != null) {
+			predicates.add(builder.equal(path, filter.getEquals()));
+		}
+		if (filter.getNotEquals() != null) {
+			predicates.add(builder.notEqual(path, filter.getNotEquals()));
+		}
+		if (filter.getIn() != null) {
+			predicates.add(filter.getIn().isEmpty() ? builder.disjunction() : path.in(filter.getIn()));
+		}
+		if (filter.getNotIn() != null && !filter.getNotIn().isEmpty()) {
+			predicates.add(builder.not(path.in(filter.getNotIn())));
+		}
+		if (filter.getSpecified() != null) {
+			predicates.add(filter.getSpecified() ? builder.isNotNull(path) : builder.isNull(path));
+		}
+		return predicates;
+	}
+
+	private static Specification<Order> nameStartsWith(String prefix) {
+		String pattern = OrderReportQuery.escapeLike(prefix) + "%";
+		return (root, query, builder) -> builder.like(root.get(Order_.name), pattern, OrderReportQuery.LIKE_ESCAPE);
+	}
+}
@@ -1,10 +1,17 @@
 package com.aspire.blog.order.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.util.List;
-
+import java.util.Optional;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Slice;
 
+import com.aspire.blog.order.service.dto.OrderAggregatesDTO;
+import com.aspire.blog.order.service.dto.OrderCriteria;
 import com.aspire.blog.order.service.dto.OrderDTO;
+import com.aspire.blog.order.service.dto.OrderStatisticsDTO;
 
 /**
  * Service Interface for managing {@link com.aspire.blog.order.domain.Order}.
@@ -20,18 +27,90 @@ public interface OrderService {
 	OrderDTO save(OrderDTO orderDTO);
 
 	/**
-	 * Get all the orders.
+	 * Save a batch of new orders, in chunks which are each saved in their own
+	 * transaction. When a chunk fails, the chunks before it stay saved.
+	 *
+	 * @param orderDTOs the entities to save.
+	 * @return the persisted entities.
+	 */
+	List<OrderDTO> saveAll(List<OrderDTO> orderDTOs);
+
+	/**
+	 * Get a page of the orders, by id.
 	 *
-	 * @return the list of entities.
+	 * @param afterId the id of the last order of the previous page, null for the
+	 *                first page.
+	 * @param size    the page size.
+	 * @return the page of entities.
 	 */
-	List<OrderDTO> findAll();
+	Slice<OrderDTO> findAll(Long afterId, int size);
+
+	/**
+	 * Count the orders.
+	 *
+	 * @return the number of entities.
+	 */
+	long count();
+
+	/**
+	 * Get the orders placed for longer than a duration and still not completed,
+	 * the oldest first.
+	 *
+	 * @param placedFor the minimum time since the orders were placed.
+	 * @param size      the maximum number of orders.
+	 * @return the stuck orders, and whether there are more.
+	 */
+	Slice<OrderDTO> findStuck(Duration placedFor, int size);
+
+	/**
+	 * Count the orders placed for longer than a duration and still not completed.
+	 *
+	 * @param placedFor the minimum time since the orders were placed.
+	 * @return the number of stuck orders.
+	 */
+	long countStuck(Duration placedFor);
+
+	/**
+	 * Aggregate the orders, in total and by status. The aggregates may be a few
+	 * seconds old.
+	 *
+	 * @return the count, amount and inventory totals of the orders.
+	 */
+	OrderAggregatesDTO aggregate();
+
+	/**
+	 * Get the order statistics kept in memory, without querying the database.
+	 *
+	 * @return the order statistics.
+	 */
+	OrderStatisticsDTO getStatistics();
 
 	/**
 	 * Export orders
 	 * 
 	 * @param type
+	 * @param criteria the filters the exported orders match, null for all.
+	 */
+	Resource exportAll(String type, OrderCriteria criteria);
+
+	/**
+	 * Export the orders as CSV, streaming rows straight to the output.
+	 *
+	 * @param criteria the filters the exported orders match, null for all.
+	 * @param out      the stream to write to, left open.
+	 * @throws IOException if the output cannot be written.
+	 */
+	void exportCsv(OrderCriteria criteria, OutputStream out) throws IOException;
+
+	/**
+	 * Write the orders as newline delimited JSON, one order per line, streaming
+	 * rows straight to the output.
+	 *
+	 * @param criteria the filters the written orders match, null for all.
+	 * @param out      the stream to write to, left open.
+	 * @throws IOException if the output cannot be written.
 	 */
-	Resource exportAll(String type);
+	void streamJson(OrderCriteria criteria, OutputStream out) throws IOException;
 
 	/**
 	 * Delete order by id
@@ -41,10 +120,23 @@ public interface OrderService {
 	void delete(Long id);
 
 	/**
-	 * Complete order transaction
+	 * Complete order transaction, provided the order still has the expected
+	 * version.
 	 * 
 	 * @param id
-	 * @return
+	 * @param expectedVersion the version the order must still have, null to
+	 *                        complete whatever the version.
+	 * @return the completed order, empty if there is no order with this id.
+	 * @throws OrderVersionMismatchException if the order has another version.
+	 */
+	Optional<OrderDTO> completeTransaction(Long id, Long expectedVersion);
+
+	/**
+	 * Complete the transactions of many orders, in chunks which are each
+	 * completed in their own transaction.
+	 *
+	 * @param ids the ids of the orders to complete.
+	 * @return the ids of the orders which were placed, and are now completed.
 	 */
-	OrderDTO completeTransaction(Long id);
+	List<Long> completeTransactions(List<Long> ids);
 }
@@ -0,0 +1,136 @@
+package com.aspire.blog.order.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.repository.OrderRepository;
+import com.aspire.blog.order.service.dto.OrderAggregateDTO;
+import com.aspire.blog.order.service.dto.OrderStatisticsDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Order statistics kept in memory: the number of orders, of placed orders, and
+ * the amount and inventory totals.
+ * <p>
+ * The statistics are rebuilt from the database once the application is ready,
+ * then updated as changes to the orders are committed by this instance, so
+ * reading them never queries the database. Changes committed by other
+ * instances are only picked up on restart. The counters are striped adders, so
+ * concurrent commits do not contend on them. They are published as Micrometer
+ * gauges under {@code orders.*}.
+ */
+@Component
+public class OrderStatistics {
+
+	private static final Logger log = LoggerFactory.getLogger(OrderStatistics.class);
+
+	private final OrderRepository orderRepository;
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder placedCount = new LongAdder();
+
+	private final DoubleAdder amountTotal = new DoubleAdder();
+
+	private final LongAdder inventoryTotal = new LongAdder();
+
+	public OrderStatistics(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+		this.orderRepository = orderRepository;
+		Gauge.builder("orders.count", count, LongAdder::sum).description("The number of orders")
+				.register(meterRegistry);
+		Gauge.builder("orders.placed.count", placedCount, LongAdder::sum)
+				.description("The number of orders placed and not completed yet").register(meterRegistry);
+		Gauge.builder("orders.amount.total", amountTotal, DoubleAdder::sum)
+				.description("The total amount of the orders").register(meterRegistry);
+		Gauge.builder("orders.inventory.total", inventoryTotal, LongAdder::sum)
+				.description("The total inventory of the orders").register(meterRegistry);
+	}
+
+	/**
+	 * Rebuild the statistics from the database. Changes committed while the
+	 * statistics are rebuilt may be counted twice or not at all.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		List<OrderAggregateDTO> aggregates = orderRepository.aggregateByStatus();
+		count.reset();
+		placedCount.reset();
+		amountTotal.reset();
+		inventoryTotal.reset();
+		for (OrderAggregateDTO aggregate : aggregates) {
+			count.add(aggregate.getCount());
+			if (aggregate.getStatus() == OrderStatus.PLACED) {
+				placedCount.add(aggregate.getCount());
+			}
+			amountTotal.add(valueOf(aggregate.getAmountSum()));
+			inventoryTotal.add(valueOf(aggregate.getInventorySum()));
+		}
+		log.debug("Rebuilt Order statistics: {}", snapshot());
+	}
+
+	/**
+	 * Count a committed new order.
+	 *
+	 * @param amount    the amount of the order.
+	 * @param inventory the inventory of the order.
+	 */
+	public void placed(Double amount, Long inventory) {
+		count.increment();
+		placedCount.increment();
+		amountTotal.add(valueOf(amount));
+		inventoryTotal.add(valueOf(inventory));
+	}
+
+	/**
+	 * Count committed completions of placed orders.
+	 *
+	 * @param orders the number of completed orders.
+	 */
+	public void completed(int orders) {
+		placedCount.add(-orders);
+	}
+
+	/**
+	 * Count a committed order deletion.
+	 *
+	 * @param status    the status of the order when deleted.
+	 * @param amount    the amount of the order.
+	 * @param inventory the inventory of the order.
+	 */
+	public void deleted(OrderStatus status, Double amount, Long inventory) {
+		count.decrement();
+		if (status == OrderStatus.PLACED) {
+			placedCount.decrement();
+		}
+		amountTotal.add(-valueOf(amount));
+		inventoryTotal.add(-valueOf(inventory));
+	}
+
+	/**
+	 * Read the statistics. The counters are read one after the other, a
+	 * concurrent commit may be reflected in some of them only.
+	 *
+	 * @return the statistics.
+	 */
+	public OrderStatisticsDTO snapshot() {
+		return new OrderStatisticsDTO(count.sum(), placedCount.sum(), amountTotal.sum(), inventoryTotal.sum());
+	}
+
+	private static double valueOf(Double value) {
+		return value == null ? 0D : value;
+	}
+
+	private static long valueOf(Long value) {
+		return value == null ? 0L : value;
+	}
+}
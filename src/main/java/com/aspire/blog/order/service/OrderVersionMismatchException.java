@@ -0,0 +1,14 @@
+package com.aspire.blog.order.service;
+
+/**
+ * Thrown when a conditional update expects another version of the order than
+ * the current one.
+ */
+public class OrderVersionMismatchException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public OrderVersionMismatchException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,104 @@
+package com.aspire.blog.order.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO describing an asynchronous export of the orders.
+ */
+public class ExportJobDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public enum Status {
+		QUEUED, RUNNING, COMPLETED, FAILED
+	}
+
+	private String id;
+
+	private String type;
+
+	private Status status;
+
+	private Instant createdDate;
+
+	private Instant finishedDate;
+
+	private String errorMessage;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+	public Instant getCreatedDate() {
+		return createdDate;
+	}
+
+	public void setCreatedDate(Instant createdDate) {
+		this.createdDate = createdDate;
+	}
+
+	public Instant getFinishedDate() {
+		return finishedDate;
+	}
+
+	public void setFinishedDate(Instant finishedDate) {
+		this.finishedDate = finishedDate;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		ExportJobDTO exportJobDTO = (ExportJobDTO) o;
+		if (exportJobDTO.getId() == null || getId() == null) {
+			return false;
+		}
+		return Objects.equals(getId(), exportJobDTO.getId());
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(getId());
+	}
+
+	@Override
+	public String toString() {
+		return "ExportJobDTO{" + "id='" + getId() + "'" + ", type='" + getType() + "'" + ", status='" + getStatus()
+				+ "'" + ", createdDate='" + getCreatedDate() + "'" + ", finishedDate='" + getFinishedDate() + "'"
+				+ ", errorMessage='" + getErrorMessage() + "'" + "}";
+	}
+}
@@ -0,0 +1,94 @@
+package com.aspire.blog.order.service.dto;
+
+import java.io.Serializable;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+
+/**
+ * The count, amount and inventory totals of a group of
+ * {@link com.aspire.blog.order.domain.Order}s, computed by the database.
+ */
+public class OrderAggregateDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private OrderStatus status;
+
+	private long count;
+
+	private Double amountSum;
+
+	private Double amountAverage;
+
+	private Long inventorySum;
+
+	public OrderAggregateDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	/**
+	 * Constructor used by projection queries over all the orders.
+	 */
+	public OrderAggregateDTO(Long count, Double amountSum, Double amountAverage, Long inventorySum) {
+		this(null, count, amountSum, amountAverage, inventorySum);
+	}
+
+	/**
+	 * Constructor used by projection queries grouping the orders by status.
+	 */
+	public OrderAggregateDTO(OrderStatus status, Long count, Double amountSum, Double amountAverage,
+			Long inventorySum) {
+		this.status = status;
+		this.count = count == null ? 0L : count;
+		this.amountSum = amountSum;
+		this.amountAverage = amountAverage;
+		this.inventorySum = inventorySum;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public Double getAmountSum() {
+		return amountSum;
+	}
+
+	public void setAmountSum(Double amountSum) {
+		this.amountSum = amountSum;
+	}
+
+	public Double getAmountAverage() {
+		return amountAverage;
+	}
+
+	public void setAmountAverage(Double amountAverage) {
+		this.amountAverage = amountAverage;
+	}
+
+	public Long getInventorySum() {
+		return inventorySum;
+	}
+
+	public void setInventorySum(Long inventorySum) {
+		this.inventorySum = inventorySum;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderAggregateDTO{" + "status=" + getStatus() + ", count=" + getCount() + ", amountSum="
+				+ getAmountSum() + ", amountAverage=" + getAmountAverage() + ", inventorySum=" + getInventorySum()
+				+ "}";
+	}
+}
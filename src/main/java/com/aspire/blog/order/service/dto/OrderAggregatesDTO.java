@@ -0,0 +1,47 @@
+package com.aspire.blog.order.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * The aggregates of all the {@link com.aspire.blog.order.domain.Order}s, and
+ * of the orders in each status.
+ */
+public class OrderAggregatesDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private OrderAggregateDTO total;
+
+	private List<OrderAggregateDTO> byStatus;
+
+	public OrderAggregatesDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public OrderAggregatesDTO(OrderAggregateDTO total, List<OrderAggregateDTO> byStatus) {
+		this.total = total;
+		this.byStatus = byStatus;
+	}
+
+	public OrderAggregateDTO getTotal() {
+		return total;
+	}
+
+	public void setTotal(OrderAggregateDTO total) {
+		this.total = total;
+	}
+
+	public List<OrderAggregateDTO> getByStatus() {
+		return byStatus;
+	}
+
+	public void setByStatus(List<OrderAggregateDTO> byStatus) {
+		this.byStatus = byStatus;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderAggregatesDTO{" + "total=" + getTotal() + ", byStatus=" + getByStatus() + "}";
+	}
+}
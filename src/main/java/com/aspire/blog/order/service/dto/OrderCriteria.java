@@ -0,0 +1,140 @@
+package com.aspire.blog.order.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link com.aspire.blog.order.domain.Order} entity.
+ * This class is used in {@link com.aspire.blog.order.web.rest.OrderResource}
+ * to receive all the possible filtering options from the Http GET request
+ * parameters. For example the following could be a valid request:
+ * {@code /orders/PDF?status.equals=PLACED&amount.greaterThanOrEqual=10&name.startsWith=abc}
+ * As Spring is unable to properly convert the types, unless specific
+ * {@link Filter} class are used, we need to use fix type specific filters.
+ */
+public class OrderCriteria implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Class for filtering the order name, which may also be matched by prefix,
+	 * a predicate the name index can serve.
+	 */
+	public static class NameFilter extends StringFilter {
+
+		private static final long serialVersionUID = 1L;
+
+		private String startsWith;
+
+		public String getStartsWith() {
+			return startsWith;
+		}
+
+		public NameFilter setStartsWith(String startsWith) {
+			this.startsWith = startsWith;
+			return this;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			final NameFilter that = (NameFilter) o;
+			return super.equals(o) && Objects.equals(startsWith, that.startsWith);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(super.hashCode(), startsWith);
+		}
+
+		@Override
+		public String toString() {
+			return super.toString() + (startsWith != null ? "startsWith=" + startsWith : "");
+		}
+	}
+
+	/**
+	 * Class for filtering OrderStatus
+	 */
+	public static class OrderStatusFilter extends Filter<OrderStatus> {
+
+		private static final long serialVersionUID = 1L;
+	}
+
+	private LongFilter id;
+
+	private NameFilter name;
+
+	private DoubleFilter amount;
+
+	private OrderStatusFilter status;
+
+	public LongFilter getId() {
+		return id;
+	}
+
+	public void setId(LongFilter id) {
+		this.id = id;
+	}
+
+	public NameFilter getName() {
+		return name;
+	}
+
+	public void setName(NameFilter name) {
+		this.name = name;
+	}
+
+	public DoubleFilter getAmount() {
+		return amount;
+	}
+
+	public void setAmount(DoubleFilter amount) {
+		this.amount = amount;
+	}
+
+	public OrderStatusFilter getStatus() {
+		return status;
+	}
+
+	public void setStatus(OrderStatusFilter status) {
+		this.status = status;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		final OrderCriteria that = (OrderCriteria) o;
+		return Objects.equals(id, that.id) && Objects.equals(name, that.name) && Objects.equals(amount, that.amount)
+				&& Objects.equals(status, that.status);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(id, name, amount, status);
+	}
+
+	@Override
+	public String toString() {
+		return "OrderCriteria{" + (id != null ? "id=" + id + ", " : "") + (name != null ? "name=" + name + ", " : "")
+				+ (amount != null ? "amount=" + amount + ", " : "")
+				+ (status != null ? "status=" + status + ", " : "") + "}";
+	}
+}
@@ -1,8 +1,11 @@
 package com.aspire.blog.order.service.dto;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+
 /**
  * A DTO for the {@link com.aspire.blog.order.domain.Order} entity.
  */
@@ -16,7 +19,30 @@ public class OrderDTO implements Serializable {
 
 	private Long inventory;
 
-	private Boolean inProgress;
+	private OrderStatus status;
+
+	private Instant placedDate;
+
+	private Long version;
+
+	public OrderDTO() {
+		// Empty constructor needed for Jackson and MapStruct.
+	}
+
+	/**
+	 * Constructor used by projection queries, reading a DTO straight from the
+	 * selected columns.
+	 */
+	public OrderDTO(Long id, String name, Double amount, Long inventory, OrderStatus status, Instant placedDate,
+			Long version) {
+		this.id = id;
+		this.name = name;
+		this.amount = amount;
+		this.inventory = inventory;
+		this.status = status;
+		this.placedDate = placedDate;
+		this.version = version;
+	}
 
 	public Long getId() {
 		return id;
@@ -50,12 +76,28 @@ public class OrderDTO implements Serializable {
 		this.inventory = inventory;
 	}
 
-	public Boolean isInProgress() {
-		return inProgress;
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+
+	public Instant getPlacedDate() {
+		return placedDate;
+	}
+
+	public void setPlacedDate(Instant placedDate) {
+		this.placedDate = placedDate;
+	}
+
+	public Long getVersion() {
+		return version;
 	}
 
-	public void setInProgress(Boolean inProgress) {
-		this.inProgress = inProgress;
+	public void setVersion(Long version) {
+		this.version = version;
 	}
 
 	@Override
@@ -82,6 +124,7 @@ public class OrderDTO implements Serializable {
 	@Override
 	public String toString() {
 		return "OrderDTO{" + "id=" + getId() + ", name='" + getName() + "'" + ", amount=" + getAmount() + ", inventory="
-				+ getInventory() + ", inProgress='" + isInProgress() + "'" + "}";
+				+ getInventory() + ", status='" + getStatus() + "'" + ", placedDate='" + getPlacedDate() + "'"
+				+ ", version=" + getVersion() + "}";
 	}
 }
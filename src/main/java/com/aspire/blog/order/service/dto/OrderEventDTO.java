@@ -0,0 +1,92 @@
+package com.aspire.blog.order.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+
+/**
+ * The payload of the {@code order_placed} and {@code order_failed} Kafka
+ * events, encoded by {@link com.aspire.blog.order.service.OrderEventCodec}.
+ */
+public class OrderEventDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+
+	private String name;
+
+	private Double amount;
+
+	private Long inventory;
+
+	private OrderStatus status;
+
+	private Instant placedDate;
+
+	private Long version;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getAmount() {
+		return amount;
+	}
+
+	public void setAmount(Double amount) {
+		this.amount = amount;
+	}
+
+	public Long getInventory() {
+		return inventory;
+	}
+
+	public void setInventory(Long inventory) {
+		this.inventory = inventory;
+	}
+
+	public OrderStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(OrderStatus status) {
+		this.status = status;
+	}
+
+	public Instant getPlacedDate() {
+		return placedDate;
+	}
+
+	public void setPlacedDate(Instant placedDate) {
+		this.placedDate = placedDate;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderEventDTO{" + "id=" + getId() + ", name='" + getName() + "'" + ", amount=" + getAmount()
+				+ ", inventory=" + getInventory() + ", status='" + getStatus() + "'" + ", placedDate='"
+				+ getPlacedDate() + "'" + ", version=" + getVersion() + "}";
+	}
+}
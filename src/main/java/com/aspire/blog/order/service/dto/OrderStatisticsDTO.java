@@ -0,0 +1,69 @@
+package com.aspire.blog.order.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of the in-memory
+ * {@link com.aspire.blog.order.service.OrderStatistics}.
+ */
+public class OrderStatisticsDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private long count;
+
+	private long placedCount;
+
+	private double amountTotal;
+
+	private long inventoryTotal;
+
+	public OrderStatisticsDTO() {
+		// Empty constructor needed for Jackson.
+	}
+
+	public OrderStatisticsDTO(long count, long placedCount, double amountTotal, long inventoryTotal) {
+		this.count = count;
+		this.placedCount = placedCount;
+		this.amountTotal = amountTotal;
+		this.inventoryTotal = inventoryTotal;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getPlacedCount() {
+		return placedCount;
+	}
+
+	public void setPlacedCount(long placedCount) {
+		this.placedCount = placedCount;
+	}
+
+	public double getAmountTotal() {
+		return amountTotal;
+	}
+
+	public void setAmountTotal(double amountTotal) {
+		this.amountTotal = amountTotal;
+	}
+
+	public long getInventoryTotal() {
+		return inventoryTotal;
+	}
+
+	public void setInventoryTotal(long inventoryTotal) {
+		this.inventoryTotal = inventoryTotal;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderStatisticsDTO{" + "count=" + getCount() + ", placedCount=" + getPlacedCount() + ", amountTotal="
+				+ getAmountTotal() + ", inventoryTotal=" + getInventoryTotal() + "}";
+	}
+}
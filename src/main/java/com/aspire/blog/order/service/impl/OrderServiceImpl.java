@@ -1,46 +1,84 @@
 package com.aspire.blog.order.service.impl;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ResourceUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.aspire.blog.order.config.ApplicationProperties;
 import com.aspire.blog.order.config.Constants;
 import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.domain.event.OrderBatchEvent;
 import com.aspire.blog.order.domain.event.OrderEvent;
+import com.aspire.blog.order.report.ExportFileStore;
+import com.aspire.blog.order.report.ExportType;
+import com.aspire.blog.order.report.OrderCsvWriter;
+import com.aspire.blog.order.report.OrderReportQuery;
+import com.aspire.blog.order.report.ReportBundleExporter;
+import com.aspire.blog.order.report.ReportTemplateRegistry;
+import com.aspire.blog.order.report.ReportVirtualizerFactory;
 import com.aspire.blog.order.report.SimpleReportExporter;
+import com.aspire.blog.order.report.SimpleReportFiller;
 import com.aspire.blog.order.repository.OrderRepository;
-import com.aspire.blog.order.service.OrderKafkaProducer;
+import com.aspire.blog.order.service.OrderDataVersion;
+import com.aspire.blog.order.service.OrderExportCache;
+import com.aspire.blog.order.service.OrderOutbox;
+import com.aspire.blog.order.service.OrderQueryService;
 import com.aspire.blog.order.service.OrderService;
+import com.aspire.blog.order.service.OrderStatistics;
+import com.aspire.blog.order.service.OrderVersionMismatchException;
+import com.aspire.blog.order.service.dto.OrderAggregatesDTO;
+import com.aspire.blog.order.service.dto.OrderCriteria;
 import com.aspire.blog.order.service.dto.OrderDTO;
+import com.aspire.blog.order.service.dto.OrderStatisticsDTO;
 import com.aspire.blog.order.service.mapper.OrderMapper;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
 import net.sf.jasperreports.engine.JRException;
-import net.sf.jasperreports.engine.JasperCompileManager;
-import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JRParameter;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
-import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import net.sf.jasperreports.engine.util.JRSaver;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
 
 /**
  * Service Implementation for managing {@link Order}.
@@ -55,28 +93,60 @@ public class OrderServiceImpl implements OrderService {
 
 	private final OrderMapper orderMapper;
 
+	private final ReportTemplateRegistry reportTemplateRegistry;
+
+	private final ReportVirtualizerFactory reportVirtualizerFactory;
+
 	@Autowired
 	private ApplicationEventPublisher applicationEventPublisher;
 
 	@Autowired
-	private OrderKafkaProducer orderKafkaProducer;
+	private OrderOutbox orderOutbox;
+
+	@Autowired
+	private OrderDataVersion orderDataVersion;
+
+	@Autowired
+	private OrderExportCache orderExportCache;
 
-	private final Path fileStorageLocation;
+	@Autowired
+	private OrderStatistics orderStatistics;
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
 
-//	@Autowired
-//	private ApplicationProperties applicationProperties;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
 
-	public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper) throws Exception {
+	@Autowired
+	private RetryTemplate optimisticLockRetryTemplate;
+
+	@PersistenceUnit
+	private EntityManagerFactory entityManagerFactory;
+
+	private final ExportFileStore exportFileStore;
+
+	private final ReportBundleExporter reportBundleExporter;
+
+	private final SimpleReportFiller simpleReportFiller;
+
+	public OrderServiceImpl(OrderRepository orderRepository, OrderMapper orderMapper,
+			ReportTemplateRegistry reportTemplateRegistry, ReportVirtualizerFactory reportVirtualizerFactory,
+			ExportFileStore exportFileStore, ReportBundleExporter reportBundleExporter,
+			SimpleReportFiller simpleReportFiller) {
 		this.orderRepository = orderRepository;
 		this.orderMapper = orderMapper;
-//		this.fileStorageLocation = Paths.get(this.applicationProperties.getUploadDir()).toAbsolutePath().normalize();
-		this.fileStorageLocation = Paths.get("../Docs").toAbsolutePath().normalize();
-
-		try {
-			Files.createDirectories(this.fileStorageLocation);
-		} catch (Exception ex) {
-			throw new Exception("Could not create the directory where the uploaded files will be stored.", ex);
-		}
+		this.reportTemplateRegistry = reportTemplateRegistry;
+		this.reportVirtualizerFactory = reportVirtualizerFactory;
+		this.exportFileStore = exportFileStore;
+		this.reportBundleExporter = reportBundleExporter;
+		this.simpleReportFiller = simpleReportFiller;
 	}
 
 	/**
@@ -89,103 +159,297 @@ public class OrderServiceImpl implements OrderService {
 	public OrderDTO save(OrderDTO orderDTO) {
 		log.debug("Request to save Order : {}", orderDTO);
 		Order order = orderMapper.toEntity(orderDTO);
-		order.setInProgress(true);
+		order.status(OrderStatus.PLACED).placedDate(Instant.now());
 		order = orderRepository.save(order);
+		orderOutbox.appendOrders(Constants.TOPIC_ORDER_PLACED, Collections.singletonList(order));
 
 		// Publishing event
 		OrderEvent orderEvent = new OrderEvent(order);
 		applicationEventPublisher.publishEvent(orderEvent);
+		Double amount = order.getAmount();
+		Long inventory = order.getInventory();
+		afterCommit(() -> {
+			orderDataVersion.increment();
+			orderStatistics.placed(amount, inventory);
+		});
 
 		return orderMapper.toDto(order);
 	}
 
 	/**
-	 * Get all the orders.
+	 * Save a batch of new orders. Each chunk of
+	 * {@code application.bulk.chunk-size} orders is saved in its own transaction,
+	 * the inserts being sent to the database in JDBC batches, and appended to
+	 * the outbox in the same transaction.
+	 *
+	 * @param orderDTOs the entities to save.
+	 * @return the persisted entities.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<OrderDTO> saveAll(List<OrderDTO> orderDTOs) {
+		log.debug("Request to save {} Orders", orderDTOs.size());
+		int chunkSize = applicationProperties.getBulk().getChunkSize();
+		List<OrderDTO> result = new ArrayList<>(orderDTOs.size());
+		for (int from = 0; from < orderDTOs.size(); from += chunkSize) {
+			List<OrderDTO> chunk = orderDTOs.subList(from, Math.min(from + chunkSize, orderDTOs.size()));
+			result.addAll(transactionTemplate.execute(status -> saveChunk(chunk)));
+		}
+		return result;
+	}
+
+	private List<OrderDTO> saveChunk(List<OrderDTO> chunk) {
+		List<Order> orders = orderMapper.toEntity(chunk);
+		Instant now = Instant.now();
+		orders.forEach(order -> order.status(OrderStatus.PLACED).placedDate(now));
+		List<Order> saved = orderRepository.saveAll(orders);
+		orderRepository.flush();
+		orderOutbox.appendOrders(Constants.TOPIC_ORDER_PLACED, saved);
+
+		// Publishing event
+		applicationEventPublisher.publishEvent(new OrderBatchEvent(saved));
+		afterCommit(() -> {
+			orderDataVersion.increment();
+			saved.forEach(order -> orderStatistics.placed(order.getAmount(), order.getInventory()));
+		});
+
+		return orderMapper.toDto(saved);
+	}
+
+	/**
+	 * Get a page of the orders, by id. Pages are sought by id instead of skipped
+	 * by offset, and not counted, so every page costs the same. The DTOs are
+	 * projected by the query, no entity is loaded.
+	 *
+	 * @param afterId the id of the last order of the previous page, null for the
+	 *                first page.
+	 * @param size    the page size.
+	 * @return the page of entities.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<OrderDTO> findAll(Long afterId, int size) {
+		log.debug("Request to get {} Orders after : {}", size, afterId);
+		Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
+		return afterId == null ? orderRepository.findAllAsDto(pageable)
+				: orderRepository.findAllAsDtoByIdGreaterThan(afterId, pageable);
+	}
+
+	/**
+	 * Count the orders.
+	 *
+	 * @return the number of entities.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public long count() {
+		log.debug("Request to count Orders");
+		return orderRepository.count();
+	}
+
+	/**
+	 * Get the stuck orders from the {@code (status, placed_date)} index, the
+	 * oldest first.
+	 *
+	 * @param placedFor the minimum time since the orders were placed.
+	 * @param size      the maximum number of orders.
+	 * @return the stuck orders, and whether there are more.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<OrderDTO> findStuck(Duration placedFor, int size) {
+		log.debug("Request to get {} Orders placed for more than {}", size, placedFor);
+		return orderRepository.findAllAsDtoByStatusAndPlacedDateBefore(OrderStatus.PLACED,
+				Instant.now().minus(placedFor), PageRequest.of(0, size, Sort.by("placedDate", "id")));
+	}
+
+	/**
+	 * Count the stuck orders from the {@code (status, placed_date)} index.
+	 *
+	 * @param placedFor the minimum time since the orders were placed.
+	 * @return the number of stuck orders.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public long countStuck(Duration placedFor) {
+		log.debug("Request to count Orders placed for more than {}", placedFor);
+		return orderRepository.countByStatusAndPlacedDateBefore(OrderStatus.PLACED, Instant.now().minus(placedFor));
+	}
+
+	/**
+	 * Aggregate the orders in the database, from the
+	 * {@code (status, amount, inventory)} index. The results are cached by the
+	 * repository for {@code application.aggregates.time-to-live}.
 	 *
-	 * @return the list of entities.
+	 * @return the count, amount and inventory totals of the orders.
 	 */
 	@Override
 	@Transactional(readOnly = true)
-	public List<OrderDTO> findAll() {
-		log.debug("Request to get all Orders");
-		return orderRepository.findAll().stream().map(orderMapper::toDto)
-				.collect(Collectors.toCollection(LinkedList::new));
+	public OrderAggregatesDTO aggregate() {
+		log.debug("Request to aggregate Orders");
+		return new OrderAggregatesDTO(orderRepository.aggregate(), orderRepository.aggregateByStatus());
+	}
+
+	/**
+	 * Get the order statistics kept in memory, without querying the database.
+	 *
+	 * @return the order statistics.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public OrderStatisticsDTO getStatistics() {
+		return orderStatistics.snapshot();
 	}
 
 	/**
 	 * Export orders
 	 * 
 	 * @param type
+	 * @param criteria the filters the exported orders match, null for all.
 	 */
 	@Override
 	@Transactional(readOnly = true)
-	public Resource exportAll(String type) {
+	public Resource exportAll(String type, OrderCriteria criteria) {
+		ExportType exportType = ExportType.fromName(type)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown export type " + type));
+		long dataVersion = orderDataVersion.current();
+		Optional<Resource> cached = orderExportCache.get(exportType, criteria, dataVersion);
+		if (cached.isPresent()) {
+			log.debug("Serving cached export of Orders as {}", type);
+			return cached.get();
+		}
+		JRSwapFileVirtualizer virtualizer = reportVirtualizerFactory.create();
+		Path partFile = null;
 		try {
-			File file = ResourceUtils.getFile("classpath:example.jrxml");
-			JasperReport jasperReport = JasperCompileManager.compileReport(file.getAbsolutePath());
-			JRSaver.saveObject(jasperReport, "exampleReport.jasper");
-			JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(orderRepository.findAll());
+			JasperReport jasperReport = reportTemplateRegistry.getReport(ReportTemplateRegistry.ORDER_REPORT);
 			Map<String, Object> parameters = new HashMap<>();
 			parameters.put("userName", "Dhaval's Orders");
-			JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+			if (virtualizer != null) {
+				parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+			}
+			JasperPrint jasperPrint = simpleReportFiller.fillReport(jasperReport, parameters,
+					OrderReportQuery.of(criteria));
+			if (virtualizer != null) {
+				// Filled pages no longer change, swapped pages do not need to be written back
+				virtualizer.setReadOnly(true);
+			}
 
+			partFile = exportFileStore.createPartFile(exportType);
 			SimpleReportExporter simpleReportExporter = new SimpleReportExporter(jasperPrint);
-			String fileName = "";
-			switch (type) {
-			case "PDF": 
-			case "PRINT":
-				fileName = "example.pdf";
-//				JasperExportManager.exportReportToPdfFile(jasperPrint, this.fileStorageLocation + "/example.pdf");
-				simpleReportExporter.exportToPdf(this.fileStorageLocation + "/" + fileName, "DHAVAL");
+			switch (exportType) {
+			case PDF:
+			case PRINT:
+				simpleReportExporter.exportToPdf(partFile.toString(), "DHAVAL");
 				break;
-			case "XLSX":
-				fileName = "Example.xlsx";
-				simpleReportExporter.exportToXlsx(this.fileStorageLocation + "/" + fileName, "Example");
+			case XLSX:
+				simpleReportExporter.exportToXlsx(partFile.toString(), "Example");
 				break;
-			case "CSV":
-				fileName = "example.csv";
-				simpleReportExporter.exportToCsv(this.fileStorageLocation + "/" + fileName);
+			case CSV:
+				simpleReportExporter.exportToCsv(partFile.toString());
 				break;
-			default:
+			case BUNDLE:
+				reportBundleExporter.export(jasperPrint, partFile);
 				break;
 			}
+			Resource exported = exportFileStore.publish(partFile, exportType);
+			partFile = null;
+			if (orderDataVersion.current() == dataVersion) {
+				orderExportCache.put(exportType, criteria, dataVersion, exported);
+			} else {
+				// The orders changed while filling, the export may mix data of both versions
+				log.debug("Not caching export of Orders as {}, the orders changed meanwhile", type);
+			}
+			return exported;
+		} catch (JRException | IOException e) {
+			log.error("Could not export Orders as {}", type, e);
+			return null;
+		} finally {
+			if (partFile != null) {
+				exportFileStore.discard(partFile);
+			}
+			if (virtualizer != null) {
+				virtualizer.cleanup();
+			}
+		}
+	}
 
-			return loadFileAsResource(fileName);
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (JRException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+	/**
+	 * Export the orders as CSV. Rows are streamed from the database as DTOs and
+	 * written as they are read, so memory use stays flat whatever the table size.
+	 *
+	 * @param criteria the filters the exported orders match, null for all.
+	 * @param out      the stream to write to, left open.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void exportCsv(OrderCriteria criteria, OutputStream out) throws IOException {
+		log.debug("Request to stream Orders as CSV by criteria : {}", criteria);
+		OrderCsvWriter csvWriter = new OrderCsvWriter(
+				new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+		csvWriter.writeHeader();
+		try (Stream<OrderDTO> orders = orderRepository
+				.streamAsDto(orderQueryService.createSpecification(criteria))) {
+			Iterator<OrderDTO> iterator = orders.iterator();
+			while (iterator.hasNext()) {
+				csvWriter.write(iterator.next());
+			}
 		}
-		return null;
+		csvWriter.flush();
 	}
 
-	private Resource loadFileAsResource(String fileName) throws IOException {
-		try {
-			Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
-			Resource resource = new UrlResource(filePath.toUri());
-			if (resource.exists()) {
-				return resource;
-			} else {
-				throw new FileNotFoundException("File not found " + fileName);
+	/**
+	 * Write the orders as newline delimited JSON. Rows are streamed from the
+	 * database as DTOs, each order being serialized as it is read, and the output
+	 * flushed every {@link Constants#STREAM_FETCH_SIZE} orders, so memory use
+	 * stays flat and the first orders are sent right away.
+	 *
+	 * @param criteria the filters the written orders match, null for all.
+	 * @param out      the stream to write to, left open.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void streamJson(OrderCriteria criteria, OutputStream out) throws IOException {
+		log.debug("Request to stream Orders as JSON by criteria : {}", criteria);
+		ObjectWriter writer = objectMapper.writerFor(OrderDTO.class);
+		int flushRows = Integer.parseInt(Constants.STREAM_FETCH_SIZE);
+		OutputStream buffered = new BufferedOutputStream(out);
+		try (Stream<OrderDTO> orders = orderRepository
+				.streamAsDto(orderQueryService.createSpecification(criteria))) {
+			Iterator<OrderDTO> iterator = orders.iterator();
+			int rows = 0;
+			while (iterator.hasNext()) {
+				buffered.write(writer.writeValueAsBytes(iterator.next()));
+				buffered.write('\n');
+				if (++rows % flushRows == 0) {
+					buffered.flush();
+				}
 			}
-		} catch (MalformedURLException ex) {
-			throw new FileNotFoundException("File not found " + fileName);
 		}
+		buffered.flush();
 	}
 
 	/**
-	 * Delete order by id
+	 * Delete order by id. The delete is retried in a new transaction when it
+	 * conflicts with a concurrent update of the order.
 	 * 
 	 * @param id
 	 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public void delete(Long id) {
 		log.debug("Request to delete Order by id : {}", id);
-		orderRepository.deleteById(id);
-		orderKafkaProducer.sendMessage(Constants.TOPIC_ORDER_FAILED, id.toString());
+		inRetriedTransaction(status -> {
+			Order order = orderRepository.findById(id).orElseThrow(() -> new EmptyResultDataAccessException(
+					String.format("No %s entity with id %s exists!", Order.class, id), 1));
+			orderRepository.delete(order);
+			orderRepository.flush();
+			orderOutbox.appendOrders(Constants.TOPIC_ORDER_FAILED, Collections.singletonList(order));
+			afterCommit(() -> {
+				orderDataVersion.increment();
+				orderStatistics.deleted(order.getStatus(), order.getAmount(), order.getInventory());
+			});
+			return null;
+		});
 	}
 
 	/**
@@ -201,20 +465,111 @@ public class OrderServiceImpl implements OrderService {
 	}
 
 	/**
-	 * Complete order transaction
+	 * Complete order transaction. The update is checked against the version of
+	 * the order, and retried in a new transaction when it conflicts with a
+	 * concurrent update.
 	 * 
 	 * @param id
-	 * @return
+	 * @param expectedVersion the version the order must still have, null to
+	 *                        complete whatever the version.
+	 * @return the completed order, empty if there is no order with this id.
+	 * @throws OrderVersionMismatchException if the order has another version.
 	 */
 	@Override
-	public OrderDTO completeTransaction(Long id) {
-		log.debug("Request to complete Order trransaction: {}", id);
-		findOne(id).map(order -> {
-			order.setInProgress(false);
-			order = orderRepository.save(order);
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public Optional<OrderDTO> completeTransaction(Long id, Long expectedVersion) {
+		log.debug("Request to complete Order transaction: {} at version {}", id, expectedVersion);
+		return inRetriedTransaction(status -> findOne(id).map(order -> {
+			if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+				throw new OrderVersionMismatchException(
+						"Order " + id + " is at version " + order.getVersion() + ", not " + expectedVersion);
+			}
+			boolean wasPlaced = order.getStatus() == OrderStatus.PLACED;
+			order.setStatus(OrderStatus.COMPLETED);
+			order = orderRepository.saveAndFlush(order);
+			afterCommit(() -> {
+				orderDataVersion.increment();
+				if (wasPlaced) {
+					orderStatistics.completed(1);
+				}
+			});
 			return orderMapper.toDto(order);
+		}));
+	}
+
+	/**
+	 * Complete the transactions of many orders. Each chunk of
+	 * {@code application.bulk.chunk-size} ids is completed in its own
+	 * transaction by a single {@code UPDATE}, after which only the completed
+	 * orders are evicted from the second-level cache.
+	 *
+	 * @param ids the ids of the orders to complete.
+	 * @return the ids of the orders which were placed, and are now completed.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<Long> completeTransactions(List<Long> ids) {
+		log.debug("Request to complete {} Order transactions", ids.size());
+		int chunkSize = applicationProperties.getBulk().getChunkSize();
+		List<Long> completed = new ArrayList<>();
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+			completed.addAll(transactionTemplate.execute(status -> completeChunk(chunk)));
+		}
+		return completed;
+	}
+
+	private List<Long> completeChunk(List<Long> ids) {
+		List<Long> completed = orderRepository.completePlaced(new LinkedHashSet<>(ids));
+		if (!completed.isEmpty()) {
+			afterCommit(() -> {
+				Cache cache = entityManagerFactory.getCache();
+				completed.forEach(id -> cache.evict(Order.class, id));
+				orderDataVersion.increment();
+				orderStatistics.completed(completed.size());
+			});
+		}
+		return completed;
+	}
+
+	/**
+	 * Run an action in a transaction, retried from scratch in a new transaction
+	 * when it fails on an optimistic locking conflict. An action joining the
+	 * caller's transaction is not retried, as the conflict rolls back the
+	 * caller's work too.
+	 *
+	 * @param action the action to run.
+	 * @return the result of the action.
+	 */
+	private <T> T inRetriedTransaction(TransactionCallback<T> action) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return transactionTemplate.execute(action);
+		}
+		return optimisticLockRetryTemplate.execute(context -> {
+			if (context.getRetryCount() > 0) {
+				log.debug("Retrying Order update after conflict, attempt {}", context.getRetryCount() + 1);
+			}
+			return transactionTemplate.execute(action);
+		});
+	}
+
+	/**
+	 * Run an action once the current transaction commits, or right away when
+	 * there is no transaction.
+	 *
+	 * @param action the action to run.
+	 */
+	private void afterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
 		});
-		return null;
 	}
 
 }
@@ -1,16 +1,29 @@
 package com.aspire.blog.order.service.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import com.aspire.blog.order.domain.Order;
 import com.aspire.blog.order.service.dto.OrderDTO;
+import com.aspire.blog.order.service.dto.OrderEventDTO;
 
 /**
- * Mapper for the entity {@link Order} and its DTO {@link OrderDTO}.
+ * Mapper for the entity {@link Order} and its DTOs {@link OrderDTO} and
+ * {@link OrderEventDTO}.
  */
 @Mapper(componentModel = "spring", uses = {})
 public interface OrderMapper extends EntityMapper<OrderDTO, Order> {
 
+	/**
+	 * The version is only ever set by the persistence provider, a client cannot
+	 * pick it.
+	 */
+	@Override
+	@Mapping(target = "version", ignore = true)
+	Order toEntity(OrderDTO orderDTO);
+
+	OrderEventDTO toEventDto(Order order);
+
 	default Order fromId(Long id) {
 		if (id == null) {
 			return null;
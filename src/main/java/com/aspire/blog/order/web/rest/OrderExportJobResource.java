@@ -0,0 +1,120 @@
+package com.aspire.blog.order.web.rest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.aspire.blog.order.report.ExportType;
+import com.aspire.blog.order.service.OrderExportJobService;
+import com.aspire.blog.order.service.dto.ExportJobDTO;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+import com.aspire.blog.order.web.rest.errors.BadRequestAlertException;
+import com.aspire.blog.order.web.rest.util.FileDownloadUtil;
+
+import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for running exports of
+ * {@link com.aspire.blog.order.domain.Order} in the background.
+ */
+@RestController
+@RequestMapping("/api")
+public class OrderExportJobResource {
+
+	private final Logger log = LoggerFactory.getLogger(OrderExportJobResource.class);
+
+	private static final String ENTITY_NAME = "orderExportJob";
+
+	@Value("${jhipster.clientApp.name}")
+	private String applicationName;
+
+	private final OrderExportJobService orderExportJobService;
+
+	public OrderExportJobResource(OrderExportJobService orderExportJobService) {
+		this.orderExportJobService = orderExportJobService;
+	}
+
+	/**
+	 * {@code POST  /orders/export-jobs} : queue an export of the orders.
+	 *
+	 * @param type     the export type, {@code PDF}, {@code PRINT}, {@code XLSX},
+	 *                 {@code CSV} or {@code BUNDLE}.
+	 * @param criteria the criteria which the exported orders should match.
+	 * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and
+	 *         with body the queued job, or with status {@code 400 (Bad Request)}
+	 *         if the type is unknown, or with status
+	 *         {@code 429 (Too Many Requests)} if too many exports are running.
+	 * @throws URISyntaxException if the Location URI syntax is incorrect.
+	 */
+	@PostMapping("/orders/export-jobs")
+	public ResponseEntity<ExportJobDTO> createExportJob(@RequestParam String type, OrderCriteria criteria) throws URISyntaxException {
+		log.debug("REST request to queue an export of Orders : {}", type);
+		if (!ExportType.fromName(type).isPresent()) {
+			throw new BadRequestAlertException("Invalid export type", ENTITY_NAME, "typeinvalid");
+		}
+		ExportJobDTO result = orderExportJobService.submit(type, criteria);
+		return ResponseEntity.accepted().location(new URI("/api/orders/export-jobs/" + result.getId()))
+				.headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId()))
+				.body(result);
+	}
+
+	/**
+	 * {@code GET  /orders/export-jobs/:id} : get the status of an export job.
+	 *
+	 * @param id the id of the job.
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with
+	 *         body the job, or with status {@code 404 (Not Found)}.
+	 */
+	@GetMapping("/orders/export-jobs/{id}")
+	public ResponseEntity<ExportJobDTO> getExportJob(@PathVariable String id) {
+		log.debug("REST request to get export job : {}", id);
+		return ResponseUtil.wrapOrNotFound(orderExportJobService.findOne(id));
+	}
+
+	/**
+	 * {@code GET  /orders/export-jobs/:id/file} : download the file of a completed
+	 * export job.
+	 * <p>
+	 * A single byte range may be requested to resume a download, along with an
+	 * {@code If-Range} header holding the {@code ETag} of the first response.
+	 *
+	 * @param id       the id of the job.
+	 * @param request  the HTTP request.
+	 * @param response the HTTP response, with status {@code 200 (OK)} or
+	 *                 {@code 206 (Partial Content)} and the exported file in body.
+	 * @throws IOException if the exported file cannot be sent.
+	 * @throws ResponseStatusException {@code 404 (Not Found)} if the job does not
+	 *                                 exist.
+	 * @throws BadRequestAlertException {@code 400 (Bad Request)} if the job is
+	 *                                  not completed.
+	 */
+	@GetMapping("/orders/export-jobs/{id}/file")
+	public void getExportJobFile(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		log.debug("REST request to download the file of export job : {}", id);
+		ExportJobDTO job = orderExportJobService.findOne(id)
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		Resource resource = orderExportJobService.findResult(id).orElseThrow(
+				() -> new BadRequestAlertException("Export job is not completed", ENTITY_NAME, "jobnotcompleted"));
+		FileDownloadUtil.writeResumable(resource, id,
+				ExportType.fromName(job.getType()).orElse(null) == ExportType.CSV, request, response);
+	}
+}
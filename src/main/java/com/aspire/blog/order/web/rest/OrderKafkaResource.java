@@ -22,8 +22,9 @@ public class OrderKafkaResource {
 	}
 
 	@PostMapping(value = "/publish")
-	public void sendMessageToKafkaTopic(@RequestParam("topic") String topic, @RequestParam("message") String message) {
+	public void sendMessageToKafkaTopic(@RequestParam("topic") String topic,
+			@RequestParam(value = "key", required = false) String key, @RequestParam("message") String message) {
 		log.debug("REST request to send to Kafka topic the message : {}", message);
-		this.kafkaProducer.sendMessage(topic, message);
+		this.kafkaProducer.sendMessage(topic, key, message);
 	}
 }
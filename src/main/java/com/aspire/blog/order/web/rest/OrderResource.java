@@ -1,16 +1,22 @@
 package com.aspire.blog.order.web.rest;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,15 +25,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.report.ExportType;
 import com.aspire.blog.order.service.OrderService;
+import com.aspire.blog.order.service.OrderVersionMismatchException;
+import com.aspire.blog.order.service.dto.OrderAggregatesDTO;
+import com.aspire.blog.order.service.dto.OrderCriteria;
 import com.aspire.blog.order.service.dto.OrderDTO;
+import com.aspire.blog.order.service.dto.OrderStatisticsDTO;
 import com.aspire.blog.order.web.rest.errors.BadRequestAlertException;
+import com.aspire.blog.order.web.rest.util.FileDownloadUtil;
+import com.aspire.blog.order.web.rest.util.KeysetPaginationUtil;
 
 import io.github.jhipster.web.util.HeaderUtil;
-import io.jsonwebtoken.io.IOException;
 
 /**
  * REST controller for managing {@link com.aspire.blog.order.domain.Order}.
@@ -40,13 +58,22 @@ public class OrderResource {
 
 	private static final String ENTITY_NAME = "orderOrder";
 
+	private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+	private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
 	@Value("${jhipster.clientApp.name}")
 	private String applicationName;
 
 	private final OrderService orderService;
 
-	public OrderResource(OrderService orderService) {
+	private final ApplicationProperties applicationProperties;
+
+	public OrderResource(OrderService orderService, ApplicationProperties applicationProperties) {
 		this.orderService = orderService;
+		this.applicationProperties = applicationProperties;
 	}
 
 	/**
@@ -65,46 +92,215 @@ public class OrderResource {
 			throw new BadRequestAlertException("A new order cannot already have an ID", ENTITY_NAME, "idexists");
 		}
 		OrderDTO result = orderService.save(orderDTO);
-		return ResponseEntity
-				.created(new URI("/api/orders/" + result.getId())).headers(HeaderUtil
+		return ResponseEntity.created(new URI("/api/orders/" + result.getId()))
+				.eTag(result.getVersion().toString()).headers(HeaderUtil
 						.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
 				.body(result);
 	}
 
+	/**
+	 * {@code POST  /orders/bulk} : Create a batch of new orders.
+	 * <p>
+	 * Orders are saved in chunks, each in its own transaction with batched
+	 * inserts. When a chunk fails, the chunks before it stay saved.
+	 *
+	 * @param orderDTOs the orderDTOs to create.
+	 * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with
+	 *         body the new orderDTOs, or with status {@code 400 (Bad Request)} if
+	 *         an order has already an ID.
+	 */
+	@PostMapping("/orders/bulk")
+	public ResponseEntity<List<OrderDTO>> createOrders(@RequestBody List<OrderDTO> orderDTOs) {
+		log.debug("REST request to save {} Orders", orderDTOs.size());
+		if (orderDTOs.stream().anyMatch(orderDTO -> orderDTO.getId() != null)) {
+			throw new BadRequestAlertException("A new order cannot already have an ID", ENTITY_NAME, "idexists");
+		}
+		List<OrderDTO> result = orderService.saveAll(orderDTOs);
+		return ResponseEntity.status(HttpStatus.CREATED)
+				.headers(HeaderUtil.createAlert(applicationName, "Orders created successfully",
+						Integer.toString(result.size())))
+				.body(result);
+	}
+
 	/**
 	 * {@code PUT  /orders} : Updates an existing order.
+	 * <p>
+	 * The update is conditional when an {@code If-Match} header carries the ETag
+	 * of the order, as returned by a previous create or update: the order is only
+	 * updated if nobody else changed it since.
 	 *
-	 * @param orderDTO the orderDTO to update.
+	 * @param orderId the id of the order to update.
+	 * @param ifMatch the expected ETag of the order, optional.
 	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
-	 *         the updated orderDTO, or with status {@code 400 (Bad Request)} if the
-	 *         orderDTO is not valid, or with status
-	 *         {@code 500 (Internal Server Error)} if the orderDTO couldn't be
-	 *         updated.
+	 *         the updated orderDTO and its ETag, or with status
+	 *         {@code 400 (Bad Request)} if the orderDTO is not valid, or with
+	 *         status {@code 404 (Not Found)} if there is no such order, or with
+	 *         status {@code 412 (Precondition Failed)} if the order does not match
+	 *         the {@code If-Match} header.
 	 * @throws URISyntaxException if the Location URI syntax is incorrect.
 	 */
 	@PutMapping("/orders")
-	public ResponseEntity<OrderDTO> updateOrder(@RequestBody Long orderId) throws URISyntaxException {
-		log.debug("REST request to update Order : {}", orderId);
+	public ResponseEntity<OrderDTO> updateOrder(@RequestBody Long orderId,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+			throws URISyntaxException {
+		log.debug("REST request to update Order : {} if matching {}", orderId, ifMatch);
 		if (orderId == null) {
 			throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
 		}
-		OrderDTO result = orderService.completeTransaction(orderId);
-		return ResponseEntity.ok()
+		OrderDTO result = orderService.completeTransaction(orderId, parseVersion(ifMatch))
+				.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+		return ResponseEntity.ok().eTag(result.getVersion().toString())
 				.headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, orderId.toString()))
 				.body(result);
 	}
 
 	/**
-	 * {@code GET  /orders} : get all the orders.
+	 * Parse the version out of an {@code If-Match} header, either a strong or a
+	 * weak ETag.
 	 *
-	 * 
+	 * @param ifMatch the header value, may be null.
+	 * @return the expected version, or null when any version matches.
+	 * @throws OrderVersionMismatchException if the header is not an order ETag.
+	 */
+	private static Long parseVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/")) {
+			tag = tag.substring(2);
+		}
+		if (tag.length() > 1 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			tag = tag.substring(1, tag.length() - 1);
+		}
+		try {
+			return Long.valueOf(tag);
+		} catch (NumberFormatException ex) {
+			throw new OrderVersionMismatchException("Invalid order ETag " + ifMatch);
+		}
+	}
+
+	/**
+	 * {@code PUT  /orders/complete} : Complete the transactions of many orders.
+	 *
+	 * @param orderIds the ids of the orders to complete.
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+	 *         the ids of the orders which were placed, and are now completed.
+	 */
+	@PutMapping("/orders/complete")
+	public ResponseEntity<List<Long>> completeOrders(@RequestBody List<Long> orderIds) {
+		log.debug("REST request to complete {} Orders", orderIds.size());
+		List<Long> result = orderService.completeTransactions(orderIds);
+		return ResponseEntity.ok().headers(
+				HeaderUtil.createAlert(applicationName, "Orders completed successfully", Integer.toString(result.size())))
+				.body(result);
+	}
+
+	/**
+	 * {@code GET  /orders} : get a page of the orders, by id.
+	 * <p>
+	 * Pages are sought by id: the next page is the one after the id of the last
+	 * order of the current page, as linked in the {@code Link} header.
+	 *
+	 * @param afterId the id of the last order of the previous page, none for the
+	 *                first page.
+	 * @param size    the page size, {@code application.pagination.default-page-size}
+	 *                if none, at most
+	 *                {@code application.pagination.max-page-size}.
 	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
 	 *         of orders in body.
 	 */
 	@GetMapping("/orders")
-	public List<OrderDTO> getAllOrders() {
-		log.debug("REST request to get all Orders");
-		return orderService.findAll();
+	public ResponseEntity<List<OrderDTO>> getAllOrders(@RequestParam(required = false) Long afterId,
+			@RequestParam(required = false) Integer size) {
+		log.debug("REST request to get a page of Orders after : {}", afterId);
+		ApplicationProperties.Pagination pagination = applicationProperties.getPagination();
+		int pageSize = size == null ? pagination.getDefaultPageSize()
+				: Math.max(1, Math.min(size, pagination.getMaxPageSize()));
+		Slice<OrderDTO> page = orderService.findAll(afterId, pageSize);
+		Long nextAfterId = page.hasNext() ? page.getContent().get(page.getNumberOfElements() - 1).getId() : null;
+		Long totalCount = afterId == null ? orderService.count() : null;
+		HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+				ServletUriComponentsBuilder.fromCurrentRequestUri(), pageSize, nextAfterId, totalCount);
+		return ResponseEntity.ok().headers(headers).body(page.getContent());
+	}
+
+	/**
+	 * {@code GET  /orders/stuck} : get the orders placed a while ago and still
+	 * not completed, the oldest first.
+	 *
+	 * @param placedForMinutes the minimum number of minutes since the orders were
+	 *                         placed, 60 if none.
+	 * @param size             the maximum number of orders,
+	 *                         {@code application.pagination.default-page-size}
+	 *                         if none, at most
+	 *                         {@code application.pagination.max-page-size}.
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)}, the number
+	 *         of stuck orders in the {@code X-Total-Count} header and the oldest
+	 *         of them in body.
+	 */
+	@GetMapping("/orders/stuck")
+	public ResponseEntity<List<OrderDTO>> getStuckOrders(@RequestParam(defaultValue = "60") long placedForMinutes,
+			@RequestParam(required = false) Integer size) {
+		log.debug("REST request to get Orders placed for more than {} minutes", placedForMinutes);
+		ApplicationProperties.Pagination pagination = applicationProperties.getPagination();
+		int pageSize = size == null ? pagination.getDefaultPageSize()
+				: Math.max(1, Math.min(size, pagination.getMaxPageSize()));
+		Duration placedFor = Duration.ofMinutes(Math.max(0, placedForMinutes));
+		Slice<OrderDTO> page = orderService.findStuck(placedFor, pageSize);
+		HttpHeaders headers = new HttpHeaders();
+		headers.add("X-Total-Count", Long.toString(orderService.countStuck(placedFor)));
+		return ResponseEntity.ok().headers(headers).body(page.getContent());
+	}
+
+	/**
+	 * {@code GET  /orders/aggregates} : get the count, amount and inventory
+	 * totals of the orders, in total and by status.
+	 * <p>
+	 * The aggregates are computed by the database and cached for
+	 * {@code application.aggregates.time-to-live}, polling them is cheap.
+	 *
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+	 *         aggregates in body.
+	 */
+	@GetMapping("/orders/aggregates")
+	public ResponseEntity<OrderAggregatesDTO> getOrderAggregates() {
+		log.debug("REST request to get Order aggregates");
+		return ResponseEntity.ok(orderService.aggregate());
+	}
+
+	/**
+	 * {@code GET  /orders/statistics} : get the order statistics kept in memory.
+	 * <p>
+	 * Unlike the aggregates, the statistics are read without querying the
+	 * database. Rebuilt from the database at startup, they then only follow the
+	 * changes made through this instance.
+	 *
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+	 *         statistics in body.
+	 */
+	@GetMapping("/orders/statistics")
+	public ResponseEntity<OrderStatisticsDTO> getOrderStatistics() {
+		log.debug("REST request to get Order statistics");
+		return ResponseEntity.ok(orderService.getStatistics());
+	}
+
+	/**
+	 * {@code GET  /orders/stream} : get all the orders as newline delimited JSON.
+	 * <p>
+	 * Orders are written as they are read from the database, one JSON object per
+	 * line, so memory use does not grow with the number of orders and the first
+	 * orders arrive before the query completes.
+	 *
+	 * @param criteria the criteria which the orders should match.
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+	 *         orders in body.
+	 */
+	@GetMapping("/orders/stream")
+	public ResponseEntity<StreamingResponseBody> streamAllOrders(OrderCriteria criteria) {
+		log.debug("REST request to stream Orders by criteria: {}", criteria);
+		StreamingResponseBody body = out -> orderService.streamJson(criteria, out);
+		return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
 	}
 
 	/**
@@ -123,37 +319,65 @@ public class OrderResource {
 	}
 
 	/**
-	 * {@code GET  /orders} : get all the orders.
+	 * {@code GET  /orders/CSV} : export all the orders as CSV.
+	 * <p>
+	 * Rows are streamed from the database straight to the response, so memory
+	 * use does not grow with the number of orders. The CSV is gzipped when the
+	 * client accepts it.
 	 *
-	 * 
-	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
-	 *         of orders in body.
-	 * @throws java.io.IOException
+	 * @param criteria the criteria which the exported orders should match.
+	 * @param request  the HTTP request.
+	 * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the CSV
+	 *         in body.
 	 */
-	@GetMapping("/orders/{type}")
-	public ResponseEntity<Resource> exportAllOrders(@PathVariable String type, HttpServletRequest request)
-			throws IOException, java.io.IOException {
-		log.debug("REST request to export all Orders");
-		// Load file as Resource
-		Resource resource = orderService.exportAll(type);
-		// Try to determine file's content type
-		String contentType = null;
-		try {
-			contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-		} catch (IOException ex) {
-			log.info("Could not determine file type.");
+	@GetMapping("/orders/CSV")
+	public ResponseEntity<StreamingResponseBody> exportAllOrdersAsCsv(OrderCriteria criteria,
+			HttpServletRequest request) {
+		log.debug("REST request to stream all Orders as CSV");
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(TEXT_CSV)
+				.header(HttpHeaders.CONTENT_DISPOSITION, FileDownloadUtil.attachment("example.csv"))
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.headers(HeaderUtil.createAlert(applicationName, "Orders exported successfully", "example.csv"));
+		if (!FileDownloadUtil.acceptsGzip(request)) {
+			return response.body(out -> orderService.exportCsv(criteria, out));
 		}
+		StreamingResponseBody body = out -> {
+			GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+			orderService.exportCsv(criteria, gzip);
+			gzip.finish();
+		};
+		return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body);
+	}
 
-		// Fallback to the default content type if type could not be determined
-		if (contentType == null) {
-			contentType = "application/octet-stream";
+	/**
+	 * {@code GET  /orders/:type} : export all the orders.
+	 * <p>
+	 * The export is rendered anew for each request, so byte ranges are not
+	 * supported: a resumable download goes through an export job.
+	 *
+	 * @param type     the export type, {@code PDF}, {@code PRINT}, {@code XLSX} or
+	 *                 {@code BUNDLE}, a ZIP of every format.
+	 * @param criteria the criteria which the exported orders should match.
+	 * @param request  the HTTP request.
+	 * @param response the HTTP response, with status {@code 200 (OK)} and the
+	 *                 exported file in body.
+	 * @throws IOException if the exported file cannot be sent.
+	 */
+	@GetMapping("/orders/{type}")
+	public void exportAllOrders(@PathVariable String type, OrderCriteria criteria, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		log.debug("REST request to export Orders by criteria: {}", criteria);
+		if (!ExportType.fromName(type).isPresent()) {
+			throw new BadRequestAlertException("Invalid export type", ENTITY_NAME, "typeinvalid");
 		}
-
-		return ResponseEntity.ok().contentType(MediaType.parseMediaType(contentType))
-				.contentLength(resource.getFile().length())
-				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + resource.getFilename())
-				.headers(HeaderUtil.createAlert(applicationName, "Orders exported successfully", resource.toString()))
-				.body(resource);
+		Resource resource = orderService.exportAll(type, criteria);
+		if (resource == null) {
+			throw new IllegalStateException("Could not export Orders as " + type);
+		}
+		HeaderUtil.createAlert(applicationName, "Orders exported successfully", resource.getFilename())
+				.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+		// CSV is streamed by exportAllOrdersAsCsv, the other types are not worth gzipping
+		FileDownloadUtil.write(resource, false, request, response);
 	}
 
 }
@@ -6,6 +6,9 @@ public final class ErrorConstants {
 
 	public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
 	public static final String ERR_VALIDATION = "error.validation";
+	public static final String ERR_EXPORT_REJECTED = "error.exportRejected";
+	public static final String ERR_PRECONDITION_FAILED = "error.preconditionFailed";
+	public static final String ERR_KAFKA_BACKPRESSURE = "error.kafkaBackpressure";
 	public static final String PROBLEM_BASE_URL = "https://www.jhipster.tech/problem";
 	public static final URI DEFAULT_TYPE = URI.create(PROBLEM_BASE_URL + "/problem-with-message");
 	public static final URI CONSTRAINT_VIOLATION_TYPE = URI.create(PROBLEM_BASE_URL + "/constraint-violation");
@@ -24,6 +24,10 @@ import org.zalando.problem.spring.web.advice.ProblemHandling;
 import org.zalando.problem.spring.web.advice.security.SecurityAdviceTrait;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 
+import com.aspire.blog.order.service.ExportJobRejectedException;
+import com.aspire.blog.order.service.KafkaBackpressureException;
+import com.aspire.blog.order.service.OrderVersionMismatchException;
+
 import io.github.jhipster.web.util.HeaderUtil;
 
 /**
@@ -109,4 +113,26 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
 				.with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
 		return create(ex, problem, request);
 	}
+
+	@ExceptionHandler
+	public ResponseEntity<Problem> handleExportJobRejected(ExportJobRejectedException ex, NativeWebRequest request) {
+		Problem problem = Problem.builder().withStatus(Status.TOO_MANY_REQUESTS).withDetail(ex.getMessage())
+				.with(MESSAGE_KEY, ErrorConstants.ERR_EXPORT_REJECTED).build();
+		return create(ex, problem, request);
+	}
+
+	@ExceptionHandler
+	public ResponseEntity<Problem> handleKafkaBackpressure(KafkaBackpressureException ex, NativeWebRequest request) {
+		Problem problem = Problem.builder().withStatus(Status.SERVICE_UNAVAILABLE).withDetail(ex.getMessage())
+				.with(MESSAGE_KEY, ErrorConstants.ERR_KAFKA_BACKPRESSURE).build();
+		return create(ex, problem, request);
+	}
+
+	@ExceptionHandler
+	public ResponseEntity<Problem> handleOrderVersionMismatch(OrderVersionMismatchException ex,
+			NativeWebRequest request) {
+		Problem problem = Problem.builder().withStatus(Status.PRECONDITION_FAILED).withDetail(ex.getMessage())
+				.with(MESSAGE_KEY, ErrorConstants.ERR_PRECONDITION_FAILED).build();
+		return create(ex, problem, request);
+	}
 }
@@ -0,0 +1,202 @@
+package com.aspire.blog.order.web.rest.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+
+import com.aspire.blog.order.report.ExportFileResource;
+
+/**
+ * Utility class for sending exported files.
+ * <p>
+ * Files are copied with {@link FileChannel#transferTo}, starting right at the
+ * requested range. The servlet output stream is no channel, so this is not a
+ * zero-copy transfer: the JDK still reads the bytes into a heap buffer and
+ * writes them to the stream. Compressible files are gzipped when the client
+ * accepts it.
+ * <p>
+ * A file which never changes once written, such as the result of an export
+ * job, can be sent as resumable: a single HTTP byte range may then be
+ * requested, validated by an {@code ETag} made of the file id and size through
+ * {@code If-Range}. Ranges are ignored on gzipped responses, as they would
+ * apply to the compressed bytes, and on any other file, as a new request may
+ * get different bytes.
+ */
+public final class FileDownloadUtil {
+
+	private static final String GZIP = "gzip";
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	private FileDownloadUtil() {
+	}
+
+	/**
+	 * Check whether the client accepts gzip encoded responses.
+	 *
+	 * @param request the HTTP request.
+	 * @return true if the response may be gzipped.
+	 */
+	public static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains(GZIP);
+	}
+
+	/**
+	 * The {@code Content-Disposition} header value of a downloaded file.
+	 *
+	 * @param filename the name of the file.
+	 * @return the header value, with the filename quoted.
+	 */
+	public static String attachment(String filename) {
+		return ContentDisposition.builder("attachment").filename(filename).build().toString();
+	}
+
+	/**
+	 * Send a file as an attachment, as a whole. A temporary export is deleted once
+	 * sent.
+	 *
+	 * @param resource     the file to send.
+	 * @param compressible whether the file may be gzipped.
+	 * @param request      the HTTP request.
+	 * @param response     the HTTP response.
+	 * @throws IOException if the file cannot be read or the response written.
+	 */
+	public static void write(Resource resource, boolean compressible, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		write(resource, compressible, null, request, response);
+	}
+
+	/**
+	 * Send a file which never changes as an attachment, of which a single byte
+	 * range may be requested. A temporary export is deleted once sent.
+	 *
+	 * @param resource     the file to send.
+	 * @param id           the id of the file, unique for its whole life.
+	 * @param compressible whether the file may be gzipped.
+	 * @param request      the HTTP request.
+	 * @param response     the HTTP response.
+	 * @throws IOException if the file cannot be read or the response written.
+	 */
+	public static void writeResumable(Resource resource, String id, boolean compressible,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		write(resource, compressible, id, request, response);
+	}
+
+	private static void write(Resource resource, boolean compressible, String id, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		try {
+			String filename = resource.getFilename();
+			String contentType = filename != null ? request.getServletContext().getMimeType(filename) : null;
+			response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+			if (filename != null) {
+				response.setHeader(HttpHeaders.CONTENT_DISPOSITION, attachment(filename));
+			}
+			long length = resource.contentLength();
+
+			if (compressible) {
+				response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+				if (acceptsGzip(request)) {
+					response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+					GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+					copy(resource, 0, length, out);
+					out.finish();
+					return;
+				}
+			}
+
+			long start = 0;
+			long end = length - 1;
+			List<HttpRange> ranges = Collections.emptyList();
+			if (id != null) {
+				String etag = "\"" + id + "-" + length + "\"";
+				response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+				response.setHeader(HttpHeaders.ETAG, etag);
+				String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+				// A range of another version of the file, or dated, is answered with the whole file
+				if (ifRange == null || ifRange.equals(etag)) {
+					ranges = parseRanges(request.getHeader(HttpHeaders.RANGE));
+				}
+			}
+			if (ranges == null) {
+				rejectRange(response, length);
+				return;
+			}
+			if (ranges.size() == 1) {
+				// Multiple ranges are allowed to be answered with the whole file
+				start = ranges.get(0).getRangeStart(length);
+				end = ranges.get(0).getRangeEnd(length);
+				if (start >= length || start > end) {
+					rejectRange(response, length);
+					return;
+				}
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+			}
+			response.setContentLengthLong(end - start + 1);
+			copy(resource, start, end - start + 1, response.getOutputStream());
+		} finally {
+			if (resource instanceof ExportFileResource && ((ExportFileResource) resource).isTemporary()) {
+				((ExportFileResource) resource).delete();
+			}
+		}
+	}
+
+	/**
+	 * @return the requested ranges, empty if none, or null if the header is
+	 *         invalid.
+	 */
+	private static List<HttpRange> parseRanges(String rangeHeader) {
+		try {
+			return HttpRange.parseRanges(rangeHeader);
+		} catch (IllegalArgumentException ex) {
+			return null;
+		}
+	}
+
+	private static void rejectRange(HttpServletResponse response, long length) {
+		response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+		response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+	}
+
+	private static void copy(Resource resource, long start, long count, OutputStream out) throws IOException {
+		if (resource.isFile()) {
+			try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+				WritableByteChannel target = Channels.newChannel(out);
+				long position = start;
+				long remaining = count;
+				while (remaining > 0) {
+					long transferred = channel.transferTo(position, remaining, target);
+					if (transferred <= 0) {
+						break;
+					}
+					position += transferred;
+					remaining -= transferred;
+				}
+			}
+		} else if (count > 0) {
+			try (InputStream in = resource.getInputStream()) {
+				StreamUtils.copyRange(in, out, start, start + count - 1);
+			}
+		}
+		out.flush();
+	}
+}
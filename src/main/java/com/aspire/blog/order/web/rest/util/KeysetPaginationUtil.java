@@ -0,0 +1,55 @@
+package com.aspire.blog.order.web.rest.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * A page is identified by the id of the last element of the previous page,
+ * {@code afterId}, instead of a page number. Links to the first and the next
+ * page are sent in the {@code Link} header, following the GitHub API format.
+ * The total count, which costs a full count query, is only sent with the
+ * first page, in the {@code X-Total-Count} header.
+ */
+public final class KeysetPaginationUtil {
+
+	public static final String AFTER_ID_PARAM = "afterId";
+
+	public static final String SIZE_PARAM = "size";
+
+	private static final String HEADER_X_TOTAL_COUNT = "X-Total-Count";
+
+	private KeysetPaginationUtil() {
+	}
+
+	/**
+	 * Generate pagination headers for a page of a keyset paginated list.
+	 *
+	 * @param uriBuilder the URI builder of the list, without query parameters.
+	 * @param size       the page size.
+	 * @param nextAfterId the id to seek past for the next page, null if this page
+	 *                   is the last.
+	 * @param totalCount the total number of elements, null if not counted.
+	 * @return the {@link HttpHeaders}.
+	 */
+	public static HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, int size,
+			Long nextAfterId, Long totalCount) {
+		HttpHeaders headers = new HttpHeaders();
+		if (totalCount != null) {
+			headers.add(HEADER_X_TOTAL_COUNT, Long.toString(totalCount));
+		}
+		StringBuilder link = new StringBuilder();
+		if (nextAfterId != null) {
+			link.append(prepareLink(uriBuilder.cloneBuilder().queryParam(AFTER_ID_PARAM, nextAfterId), size, "next"))
+					.append(",");
+		}
+		link.append(prepareLink(uriBuilder.cloneBuilder(), size, "first"));
+		headers.add(HttpHeaders.LINK, link.toString());
+		return headers;
+	}
+
+	private static String prepareLink(UriComponentsBuilder uriBuilder, int size, String relType) {
+		return "<" + uriBuilder.queryParam(SIZE_PARAM, size).toUriString() + ">; rel=\"" + relType + "\"";
+	}
+}
@@ -0,0 +1,114 @@
+package com.aspire.blog.order.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+
+/**
+ * Throughput and latency of the {@link KafkaProducerPreset}s against an
+ * embedded broker. Only run on request, the figures are logged:
+ *
+ * <pre>
+ * ./mvnw verify -Dkafka.benchmark=true -Dit.test=KafkaProducerPresetBenchmarkIT
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "kafka.benchmark", matches = "true")
+public class KafkaProducerPresetBenchmarkIT {
+
+	private static final Logger log = LoggerFactory.getLogger(KafkaProducerPresetBenchmarkIT.class);
+
+	private static final String TOPIC = "benchmark";
+
+	private static final int WARMUP_MESSAGES = 10_000;
+
+	private static final int MESSAGES = 100_000;
+
+	private static final int MESSAGE_SIZE = 256;
+
+	private static EmbeddedKafkaBroker broker;
+
+	@BeforeAll
+	public static void startBroker() throws Exception {
+		broker = new EmbeddedKafkaBroker(1, true, 4, TOPIC);
+		broker.afterPropertiesSet();
+	}
+
+	@AfterAll
+	public static void stopBroker() {
+		broker.destroy();
+	}
+
+	@Test
+	public void benchmarkPresets() throws Exception {
+		char[] payload = new char[MESSAGE_SIZE];
+		Arrays.fill(payload, 'x');
+		String message = new String(payload);
+		for (KafkaProducerPreset preset : KafkaProducerPreset.values()) {
+			try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProperties(preset))) {
+				send(producer, message, WARMUP_MESSAGES);
+				long start = System.nanoTime();
+				long[] latencies = send(producer, message, MESSAGES);
+				long throughput = MESSAGES * TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+				Arrays.sort(latencies);
+				log.info("{}: {} msgs/s, p50 {} us, p99 {} us", preset, throughput, percentile(latencies, 0.50),
+						percentile(latencies, 0.99));
+			}
+		}
+	}
+
+	/**
+	 * Send messages as fast as the producer takes them, and wait for them to be
+	 * acknowledged.
+	 *
+	 * @return the latency of each send in microseconds.
+	 */
+	private static long[] send(KafkaProducer<String, String> producer, String message, int count)
+			throws InterruptedException {
+		long[] result = new long[count];
+		CountDownLatch acknowledged = new CountDownLatch(count);
+		AtomicInteger failures = new AtomicInteger();
+		for (int i = 0; i < count; i++) {
+			int index = i;
+			long sent = System.nanoTime();
+			producer.send(new ProducerRecord<>(TOPIC, Integer.toString(i), message), (metadata, ex) -> {
+				result[index] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+				if (ex != null) {
+					failures.incrementAndGet();
+				}
+				acknowledged.countDown();
+			});
+		}
+		assertThat(acknowledged.await(2, TimeUnit.MINUTES)).isTrue();
+		assertThat(failures).hasValue(0);
+		return result;
+	}
+
+	private static long percentile(long[] sortedLatencies, double percentile) {
+		return sortedLatencies[(int) Math.ceil(percentile * sortedLatencies.length) - 1];
+	}
+
+	private static Map<String, Object> producerProperties(KafkaProducerPreset preset) {
+		Map<String, Object> properties = new HashMap<>(preset.producerProperties());
+		properties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+		properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+		return properties;
+	}
+}
@@ -0,0 +1,91 @@
+package com.aspire.blog.order.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link OrderIdPartitioner} class.
+ */
+public class OrderIdPartitionerTest {
+
+	private static final String TOPIC = "order_placed";
+
+	private static final Node NODE = new Node(0, "localhost", 9092);
+
+	private final OrderIdPartitioner partitioner = new OrderIdPartitioner();
+
+	@AfterEach
+	public void close() {
+		partitioner.close();
+	}
+
+	@Test
+	public void testOrderStaysOnItsPartition() {
+		Cluster cluster = cluster(12);
+		int partition = partition("42", cluster);
+		for (int i = 0; i < 10; i++) {
+			assertThat(partition("42", cluster)).isEqualTo(partition);
+		}
+		assertThat(partition).isBetween(0, 11);
+	}
+
+	@Test
+	public void testSequentialOrdersAreSpread() {
+		Cluster cluster = cluster(8);
+		int[] counts = new int[8];
+		for (long id = 1; id <= 8000; id++) {
+			counts[partition(Long.toString(id), cluster)]++;
+		}
+		for (int count : counts) {
+			assertThat(count).isBetween(800, 1200);
+		}
+	}
+
+	@Test
+	public void testAddingPartitionsOnlyMovesOrdersToTheNewOnes() {
+		Cluster before = cluster(8);
+		Cluster after = cluster(9);
+		int moved = 0;
+		for (long id = 1; id <= 9000; id++) {
+			int from = partition(Long.toString(id), before);
+			int to = partition(Long.toString(id), after);
+			if (from != to) {
+				assertThat(to).isEqualTo(8);
+				moved++;
+			}
+		}
+		// About one order in nine moves to the new partition
+		assertThat(moved).isBetween(800, 1200);
+	}
+
+	@Test
+	public void testMessageWithoutOrderIdIsPartitionedByDefault() {
+		Cluster cluster = cluster(12);
+		byte[] keyBytes = "not-an-id".getBytes();
+		int partition = partitioner.partition(TOPIC, "not-an-id", keyBytes, "message", null, cluster);
+		assertThat(partition).isEqualTo(Utils.toPositive(Utils.murmur2(keyBytes)) % 12);
+	}
+
+	private int partition(String key, Cluster cluster) {
+		return partitioner.partition(TOPIC, key, key.getBytes(), "message", null, cluster);
+	}
+
+	private static Cluster cluster(int partitions) {
+		List<PartitionInfo> partitionInfos = new ArrayList<>();
+		for (int i = 0; i < partitions; i++) {
+			partitionInfos.add(new PartitionInfo(TOPIC, i, NODE, new Node[] { NODE }, new Node[] { NODE }));
+		}
+		return new Cluster("cluster", Collections.singletonList(NODE), partitionInfos, Collections.emptySet(),
+				Collections.emptySet());
+	}
+}
@@ -0,0 +1,67 @@
+package com.aspire.blog.order.domain.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the {@link SnowflakeIdGenerator} class.
+ */
+public class SnowflakeIdGeneratorTest {
+
+	private static final long EPOCH = 1_000_000L;
+
+	@Test
+	public void testIdsCarryTimeAndNode() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 10, 5, () -> EPOCH + 1234);
+
+		long id = generator.nextId();
+
+		assertThat(id).isEqualTo((1234L << 22) | (5L << 12));
+		assertThat(generator.timestampOf(id)).isEqualTo(EPOCH + 1234);
+		assertThat(generator.nodeOf(id)).isEqualTo(5);
+	}
+
+	@Test
+	public void testIdsIncreaseWithinTheSameMillisecond() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 21, 0, () -> EPOCH);
+
+		long first = generator.nextId();
+		long second = generator.nextId();
+		// Only 2 ids fit in a millisecond with 21 node bits, the third one borrows the next
+		long third = generator.nextId();
+
+		assertThat(second).isEqualTo(first + 1);
+		assertThat(third).isGreaterThan(second);
+		assertThat(generator.timestampOf(third)).isEqualTo(EPOCH + 1);
+	}
+
+	@Test
+	public void testIdsIncreaseWhenTheClockGoesBackwards() {
+		AtomicLong clock = new AtomicLong(EPOCH + 100);
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 10, 1, clock::get);
+
+		long before = generator.nextId();
+		clock.set(EPOCH + 50);
+		long after = generator.nextId();
+
+		assertThat(after).isGreaterThan(before);
+		assertThat(generator.nodeOf(after)).isEqualTo(1);
+	}
+
+	@Test
+	public void testNodeIdMustFitInNodeBits() {
+		assertThatThrownBy(() -> new SnowflakeIdGenerator(EPOCH, 4, 16)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new SnowflakeIdGenerator(EPOCH, 22, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testClockBeforeEpochIsRejected() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 10, 0, () -> EPOCH - 1);
+
+		assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,57 @@
+package com.aspire.blog.order.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+
+/**
+ * Unit tests for the {@link ExportFileStore} class.
+ */
+public class ExportFileStoreTest {
+
+	private Path directory;
+
+	private ExportFileStore exportFileStore;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("exports");
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		applicationProperties.setUploadDir(directory.toString());
+		applicationProperties.getExport().setJobRetention(Duration.ofHours(1));
+		exportFileStore = new ExportFileStore(applicationProperties);
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		FileSystemUtils.deleteRecursively(directory);
+	}
+
+	@Test
+	public void testRemoveOrphansKeepsRecentFiles() throws IOException {
+		Path expired = exportFileStore.createPartFile(ExportType.CSV);
+		Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+		// Possibly still written or served by another instance sharing the directory
+		Path recent = exportFileStore.createPartFile(ExportType.CSV);
+		Path published = exportFileStore.publish(exportFileStore.createPartFile(ExportType.CSV), ExportType.CSV)
+				.getFile().toPath();
+
+		exportFileStore.removeOrphans();
+
+		assertThat(expired).doesNotExist();
+		assertThat(recent).exists();
+		assertThat(published).exists();
+	}
+}
@@ -0,0 +1,167 @@
+package com.aspire.blog.order.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aspire.blog.order.OrderApp;
+import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.repository.OrderRepository;
+import com.aspire.blog.order.service.OrderQueryService;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+import io.github.jhipster.service.filter.LongFilter;
+
+/**
+ * Integration tests checking that the {@link OrderReportQuery} of the Jasper
+ * exports and the {@link OrderQueryService} of the CSV export select the same
+ * orders, for each filter operator.
+ */
+@EmbeddedKafka
+@SpringBootTest(classes = OrderApp.class)
+@Transactional
+public class OrderReportQueryIT {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderQueryService orderQueryService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Order book;
+
+	private Order pen;
+
+	private Set<Long> ids;
+
+	@BeforeEach
+	public void initTest() {
+		book = save("Book 50%", 10D, OrderStatus.PLACED);
+		pen = save("pen", 20D, OrderStatus.COMPLETED);
+		Order unnamed = save(null, null, OrderStatus.FAILED);
+		ids = new HashSet<>(Arrays.asList(book.getId(), pen.getId(), unnamed.getId()));
+	}
+
+	@Test
+	public void equalsAndNotEquals() {
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setEquals(10D))));
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setNotEquals(10D))));
+		assertSameOrders(criteria -> criteria.setStatus(status(filter -> filter.setEquals(OrderStatus.PLACED))));
+		assertSameOrders(criteria -> criteria.setStatus(status(filter -> filter.setNotEquals(OrderStatus.PLACED))));
+		assertSameOrders(criteria -> criteria.setName(name(filter -> filter.setNotEquals("pen"))));
+	}
+
+	@Test
+	public void inAndNotIn() {
+		assertSameOrders(
+				criteria -> criteria.setId(id(filter -> filter.setIn(Arrays.asList(book.getId(), pen.getId())))));
+		assertSameOrders(
+				criteria -> criteria.setId(id(filter -> filter.setNotIn(Collections.singletonList(book.getId())))));
+		assertSameOrders(criteria -> criteria.setId(id(filter -> filter.setIn(Collections.emptyList()))));
+		assertSameOrders(criteria -> criteria
+				.setStatus(status(filter -> filter.setNotIn(Arrays.asList(OrderStatus.PLACED, OrderStatus.FAILED)))));
+	}
+
+	@Test
+	public void specified() {
+		assertSameOrders(criteria -> criteria.setName(name(filter -> filter.setSpecified(true))));
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setSpecified(false))));
+	}
+
+	@Test
+	public void ranges() {
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setGreaterThan(10D))));
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setGreaterThanOrEqual(10D))));
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setLessThan(20D))));
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> filter.setLessThanOrEqual(20D))));
+	}
+
+	@Test
+	public void containsAndStartsWith() {
+		assertSameOrders(criteria -> criteria.setName(name(filter -> filter.setContains("50%"))));
+		assertSameOrders(criteria -> criteria.setName(name(filter -> filter.setContains("PEN"))));
+		assertSameOrders(criteria -> criteria.setName(name(filter -> filter.setDoesNotContain("book"))));
+		assertSameOrders(criteria -> criteria.setName(name(filter -> filter.setStartsWith("Bo"))));
+	}
+
+	@Test
+	public void operatorsAreCombined() {
+		// Each operator must hold, an equals does not make the others ignored
+		assertSameOrders(criteria -> criteria.setAmount(amount(filter -> {
+			filter.setEquals(10D);
+			filter.setGreaterThan(10D);
+		})));
+		assertSameOrders(criteria -> criteria.setName(name(filter -> {
+			filter.setIn(Arrays.asList("Book 50%", "pen"));
+			filter.setContains("e");
+		})));
+		assertSameOrders(criteria -> {
+			criteria.setStatus(
+					status(filter -> filter.setIn(Arrays.asList(OrderStatus.PLACED, OrderStatus.COMPLETED))));
+			criteria.setAmount(amount(filter -> filter.setLessThan(20D)));
+		});
+	}
+
+	private void assertSameOrders(Consumer<OrderCriteria> filters) {
+		OrderCriteria criteria = new OrderCriteria();
+		filters.accept(criteria);
+
+		List<Long> specificationIds = orderQueryService.findByCriteria(criteria).stream().map(Order::getId)
+				.filter(ids::contains).collect(Collectors.toList());
+		OrderReportQuery query = OrderReportQuery.of(criteria);
+		List<Long> reportIds = jdbcTemplate
+				.query(query.getSql(), query.getArguments().toArray(), (rs, rowNum) -> rs.getLong("id")).stream()
+				.filter(ids::contains).collect(Collectors.toList());
+
+		assertThat(reportIds).as(criteria.toString()).isEqualTo(specificationIds);
+	}
+
+	private Order save(String name, Double amount, OrderStatus status) {
+		return orderRepository.saveAndFlush(
+				new Order().name(name).amount(amount).inventory(1L).status(status).placedDate(Instant.now()));
+	}
+
+	private static LongFilter id(Consumer<LongFilter> operators) {
+		LongFilter filter = new LongFilter();
+		operators.accept(filter);
+		return filter;
+	}
+
+	private static OrderCriteria.NameFilter name(Consumer<OrderCriteria.NameFilter> operators) {
+		OrderCriteria.NameFilter filter = new OrderCriteria.NameFilter();
+		operators.accept(filter);
+		return filter;
+	}
+
+	private static DoubleFilter amount(Consumer<DoubleFilter> operators) {
+		DoubleFilter filter = new DoubleFilter();
+		operators.accept(filter);
+		return filter;
+	}
+
+	private static OrderCriteria.OrderStatusFilter status(Consumer<OrderCriteria.OrderStatusFilter> operators) {
+		OrderCriteria.OrderStatusFilter filter = new OrderCriteria.OrderStatusFilter();
+		operators.accept(filter);
+		return filter;
+	}
+}
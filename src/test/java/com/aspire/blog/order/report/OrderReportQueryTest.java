@@ -0,0 +1,43 @@
+package com.aspire.blog.order.report;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+import io.github.jhipster.service.filter.DoubleFilter;
+
+/**
+ * Unit tests for the {@link OrderReportQuery} class.
+ */
+public class OrderReportQueryTest {
+
+	@Test
+	public void testAllOrders() {
+		OrderReportQuery query = OrderReportQuery.of(new OrderCriteria());
+
+		assertThat(query.getSql()).isEqualTo("select id, name, amount, inventory from jhi_order order by id");
+		assertThat(query.getArguments()).isEmpty();
+	}
+
+	@Test
+	public void testCriteriaBecomePredicates() {
+		OrderCriteria criteria = new OrderCriteria();
+		OrderCriteria.OrderStatusFilter status = new OrderCriteria.OrderStatusFilter();
+		status.setEquals(OrderStatus.PLACED);
+		criteria.setStatus(status);
+		DoubleFilter amount = new DoubleFilter();
+		amount.setGreaterThanOrEqual(10D);
+		amount.setLessThan(20D);
+		criteria.setAmount(amount);
+		criteria.setName(new OrderCriteria.NameFilter().setStartsWith("50%_"));
+
+		OrderReportQuery query = OrderReportQuery.of(criteria);
+
+		assertThat(query.getSql()).isEqualTo("select id, name, amount, inventory from jhi_order"
+				+ " where name like ? escape '!' and amount >= ? and amount < ? and status = ? order by id");
+		assertThat(query.getArguments()).containsExactly("50!%!_%", 10D, 20D, "PLACED");
+	}
+}
@@ -0,0 +1,88 @@
+package com.aspire.blog.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.service.dto.OrderEventDTO;
+
+/**
+ * Unit tests for the {@link OrderEventCodec} class.
+ */
+public class OrderEventCodecTest {
+
+	@Test
+	public void testRoundTrip() {
+		OrderEventDTO event = createEvent();
+
+		OrderEventDTO decoded = OrderEventCodec.decode(OrderEventCodec.SCHEMA_VERSION, OrderEventCodec.encode(event));
+
+		assertThat(decoded).isEqualToComparingFieldByField(event);
+	}
+
+	@Test
+	public void testRoundTripWithoutOptionalFields() {
+		OrderEventDTO event = new OrderEventDTO();
+		event.setId(42L);
+
+		byte[] encoded = OrderEventCodec.encode(event);
+
+		// Flags and a one byte varint
+		assertThat(encoded).hasSize(2);
+		assertThat(OrderEventCodec.decode(OrderEventCodec.SCHEMA_VERSION, encoded))
+				.isEqualToComparingFieldByField(event);
+	}
+
+	@Test
+	public void testRoundTripOfExtremeValues() {
+		OrderEventDTO event = createEvent();
+		event.setId(Long.MAX_VALUE);
+		event.setInventory(Long.MIN_VALUE);
+		event.setPlacedDate(Instant.ofEpochMilli(-1L));
+		event.setName("Commande n\u00b0 1 \u2013 \ud83d\udce6");
+
+		OrderEventDTO decoded = OrderEventCodec.decode(OrderEventCodec.SCHEMA_VERSION, OrderEventCodec.encode(event));
+
+		assertThat(decoded).isEqualToComparingFieldByField(event);
+	}
+
+	@Test
+	public void testEncodedEventIsCompact() {
+		// Id, name, amount, inventory, status, date and version of a typical order
+		assertThat(OrderEventCodec.encode(createEvent())).hasSizeLessThan(40);
+	}
+
+	@Test
+	public void testUnknownSchemaVersionIsRejected() {
+		byte[] encoded = OrderEventCodec.encode(createEvent());
+
+		assertThatThrownBy(() -> OrderEventCodec.decode((byte) 2, encoded))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testTruncatedEventIsRejected() {
+		byte[] encoded = OrderEventCodec.encode(createEvent());
+		byte[] truncated = new byte[encoded.length - 1];
+		System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+
+		assertThatThrownBy(() -> OrderEventCodec.decode(OrderEventCodec.SCHEMA_VERSION, truncated))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static OrderEventDTO createEvent() {
+		OrderEventDTO event = new OrderEventDTO();
+		event.setId(123456L);
+		event.setName("AAAAAAAAAA");
+		event.setAmount(19.99D);
+		event.setInventory(3L);
+		event.setStatus(OrderStatus.PLACED);
+		event.setPlacedDate(Instant.parse("2026-10-17T12:00:00.123Z"));
+		event.setVersion(0L);
+		return event;
+	}
+}
@@ -0,0 +1,112 @@
+package com.aspire.blog.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.report.ExportType;
+import com.aspire.blog.order.service.dto.OrderCriteria;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OrderExportCacheTest {
+
+	private static final OrderCriteria ALL = new OrderCriteria();
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private OrderExportCache orderExportCache;
+
+	private Path exportFile;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		applicationProperties.getExport().getCache().setMaxEntries(2);
+		meterRegistry = new SimpleMeterRegistry();
+		orderExportCache = new OrderExportCache(applicationProperties, meterRegistry);
+		exportFile = Files.createTempFile("orders-", ".pdf");
+		Files.write(exportFile, new byte[] { 1, 2, 3 });
+	}
+
+	@AfterEach
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(exportFile);
+	}
+
+	@Test
+	public void testHitAfterPut() throws IOException {
+		assertThat(orderExportCache.get(ExportType.PDF, ALL, 1L)).isEmpty();
+
+		orderExportCache.put(ExportType.PDF, ALL, 1L, new FileSystemResource(exportFile));
+
+		Resource cached = orderExportCache.get(ExportType.PDF, ALL, 1L).get();
+		assertThat(cached.contentLength()).isEqualTo(3L);
+		assertThat(cached.getFilename()).isEqualTo("example.pdf");
+		assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1d);
+		assertThat(meterRegistry.get("cache.gets").tag("result", "miss").counter().count()).isEqualTo(1d);
+	}
+
+	@Test
+	public void testMissForOtherCriteria() {
+		orderExportCache.put(ExportType.PDF, ALL, 1L, new FileSystemResource(exportFile));
+
+		OrderCriteria openOrders = new OrderCriteria();
+		OrderCriteria.OrderStatusFilter placed = new OrderCriteria.OrderStatusFilter();
+		placed.setEquals(OrderStatus.PLACED);
+		openOrders.setStatus(placed);
+		assertThat(orderExportCache.get(ExportType.PDF, openOrders, 1L)).isEmpty();
+		assertThat(orderExportCache.get(ExportType.PDF, new OrderCriteria(), 1L)).isPresent();
+	}
+
+	@Test
+	public void testMissForCriteriaRenderedAlike() {
+		// Both render as "name=StringFilter [contains=a, equals=b, ]"
+		OrderCriteria containing = new OrderCriteria();
+		OrderCriteria.NameFilter containingName = new OrderCriteria.NameFilter();
+		containingName.setContains("a, equals=b");
+		containing.setName(containingName);
+		OrderCriteria containingAndEqual = new OrderCriteria();
+		OrderCriteria.NameFilter containingAndEqualName = new OrderCriteria.NameFilter();
+		containingAndEqualName.setContains("a");
+		containingAndEqualName.setEquals("b");
+		containingAndEqual.setName(containingAndEqualName);
+
+		orderExportCache.put(ExportType.PDF, containing, 1L, new FileSystemResource(exportFile));
+
+		assertThat(orderExportCache.get(ExportType.PDF, containingAndEqual, 1L)).isEmpty();
+		assertThat(orderExportCache.get(ExportType.PDF, containing, 1L)).isPresent();
+	}
+
+	@Test
+	public void testNewerVersionEvictsOlderExports() {
+		orderExportCache.put(ExportType.PDF, ALL, 1L, new FileSystemResource(exportFile));
+		orderExportCache.put(ExportType.XLSX, ALL, 2L, new FileSystemResource(exportFile));
+
+		assertThat(orderExportCache.get(ExportType.PDF, ALL, 1L)).isEmpty();
+		assertThat(orderExportCache.size()).isEqualTo(1);
+		assertThat(meterRegistry.get("cache.evictions").counter().count()).isEqualTo(1d);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedExportIsEvicted() {
+		orderExportCache.put(ExportType.PDF, ALL, 1L, new FileSystemResource(exportFile));
+		orderExportCache.put(ExportType.XLSX, ALL, 1L, new FileSystemResource(exportFile));
+		orderExportCache.get(ExportType.PDF, ALL, 1L);
+		orderExportCache.put(ExportType.CSV, ALL, 1L, new FileSystemResource(exportFile));
+
+		assertThat(orderExportCache.get(ExportType.PDF, ALL, 1L)).isPresent();
+		assertThat(orderExportCache.get(ExportType.XLSX, ALL, 1L)).isEmpty();
+		assertThat(orderExportCache.size()).isEqualTo(2);
+	}
+}
@@ -0,0 +1,127 @@
+package com.aspire.blog.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.service.dto.OrderEventDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for the {@link OrderKafkaProducer} class.
+ */
+public class OrderKafkaProducerTest {
+
+	private static final String TOPIC = "test";
+
+	private static final byte[] MESSAGE = { 1, 2, 3 };
+
+	private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private OrderKafkaProducer orderKafkaProducer;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		kafkaTemplate = mock(KafkaTemplate.class);
+		meterRegistry = new SimpleMeterRegistry();
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		applicationProperties.getKafka().setMaxInFlight(1);
+		applicationProperties.getKafka().setAcquireTimeout(Duration.ofMillis(10));
+		orderKafkaProducer = new OrderKafkaProducer(kafkaTemplate, applicationProperties, meterRegistry);
+	}
+
+	@Test
+	public void testSendIsAcknowledged() {
+		SettableListenableFuture<SendResult<String, byte[]>> sent = send();
+
+		CompletableFuture<SendResult<String, byte[]>> result = orderKafkaProducer.sendAsync(TOPIC, "1", MESSAGE,
+				Collections.emptyList());
+		assertThat(result).isNotDone();
+		assertThat(meterRegistry.get("orders.kafka.send.in-flight").gauge().value()).isEqualTo(1D);
+
+		sent.set(null);
+		assertThat(result).isCompletedWithValue(null);
+		assertThat(meterRegistry.get("orders.kafka.send.in-flight").gauge().value()).isEqualTo(0D);
+		assertThat(meterRegistry.get("orders.kafka.send").tag("topic", TOPIC).timer().count()).isEqualTo(1L);
+	}
+
+	@Test
+	public void testSendIsRejectedWhenTooManyInFlight() {
+		SettableListenableFuture<SendResult<String, byte[]>> sent = send();
+		orderKafkaProducer.sendAsync(TOPIC, "1", MESSAGE, Collections.emptyList());
+
+		assertThatThrownBy(() -> orderKafkaProducer.sendAsync(TOPIC, "2", MESSAGE, Collections.emptyList()))
+				.isInstanceOf(KafkaBackpressureException.class);
+		assertThat(meterRegistry.get("orders.kafka.send.rejected").tag("topic", TOPIC).counter().count())
+				.isEqualTo(1D);
+
+		// Completing the first send makes room for another one
+		sent.set(null);
+		send();
+		assertThat(orderKafkaProducer.sendAsync(TOPIC, "2", MESSAGE, Collections.emptyList())).isNotDone();
+	}
+
+	@Test
+	public void testSendFailureIsCounted() {
+		SettableListenableFuture<SendResult<String, byte[]>> sent = send();
+
+		CompletableFuture<SendResult<String, byte[]>> result = orderKafkaProducer.sendAsync(TOPIC, "1", MESSAGE,
+				Collections.emptyList());
+		sent.setException(new TimeoutException("broker down"));
+
+		assertThat(result).isCompletedExceptionally();
+		assertThat(meterRegistry.get("orders.kafka.send.errors").tag("topic", TOPIC).counter().count())
+				.isEqualTo(1D);
+		assertThat(meterRegistry.get("orders.kafka.send.in-flight").gauge().value()).isEqualTo(0D);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSendEventsNeitherWaitsNorThrows() {
+		SettableListenableFuture<SendResult<String, byte[]>> sent = send();
+		OrderEventDTO first = new OrderEventDTO();
+		first.setId(1L);
+		OrderEventDTO second = new OrderEventDTO();
+		second.setId(2L);
+
+		// The second event finds no room, it is dropped rather than waited for
+		CompletableFuture<Void> result = orderKafkaProducer.sendEvents(TOPIC, Arrays.asList(first, second));
+
+		assertThat(result).isCompletedExceptionally();
+		assertThat(meterRegistry.get("orders.kafka.send.rejected").tag("topic", TOPIC).counter().count())
+				.isEqualTo(1D);
+		verify(kafkaTemplate, times(1)).send(any(ProducerRecord.class));
+		verify(kafkaTemplate, never()).flush();
+		sent.set(null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private SettableListenableFuture<SendResult<String, byte[]>> send() {
+		SettableListenableFuture<SendResult<String, byte[]>> sent = new SettableListenableFuture<>();
+		when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(sent);
+		return sent;
+	}
+}
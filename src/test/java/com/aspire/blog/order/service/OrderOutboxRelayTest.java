@@ -0,0 +1,94 @@
+package com.aspire.blog.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+import com.aspire.blog.order.repository.OrderOutboxRepository;
+
+/**
+ * Unit tests for the {@link OrderOutboxRelay} class.
+ */
+public class OrderOutboxRelayTest {
+
+	private static final String TOPIC = "test";
+
+	private OrderOutboxRepository orderOutboxRepository;
+
+	private OrderKafkaProducer orderKafkaProducer;
+
+	private OrderOutboxRelay orderOutboxRelay;
+
+	@BeforeEach
+	public void setup() {
+		orderOutboxRepository = mock(OrderOutboxRepository.class);
+		orderKafkaProducer = mock(OrderKafkaProducer.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		ApplicationProperties applicationProperties = new ApplicationProperties();
+		applicationProperties.getOutbox().setSendTimeout(Duration.ofMillis(200));
+		orderOutboxRelay = new OrderOutboxRelay(orderOutboxRepository, orderKafkaProducer, applicationProperties,
+				transactionManager);
+	}
+
+	@Test
+	public void testRelayKeepsMessagesFromTheFirstFailure() {
+		List<OrderOutboxMessage> batch = batch(3);
+		CompletableFuture<SendResult<String, byte[]>> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("broker down"));
+		when(orderKafkaProducer.sendAsync(eq(TOPIC), anyString(), any(), anyList())).thenReturn(
+				CompletableFuture.completedFuture(null), failed, CompletableFuture.completedFuture(null));
+
+		assertThat(orderOutboxRelay.relayBatch()).isEqualTo(1);
+		verify(orderOutboxRepository).deleteInBatch(batch.subList(0, 1));
+		// Nothing is sent after a failed message, it would only be sent again
+		verify(orderKafkaProducer, never()).sendAsync(eq(TOPIC), eq("3"), any(), anyList());
+	}
+
+	@Test
+	public void testRelayWaitsOnceForTheWholeBatch() {
+		batch(20);
+		when(orderKafkaProducer.sendAsync(eq(TOPIC), anyString(), any(), anyList()))
+				.thenAnswer(invocation -> new CompletableFuture<>());
+
+		Instant start = Instant.now();
+		assertThat(orderOutboxRelay.relayBatch()).isEqualTo(0);
+		// Waiting for each message in turn would take 4 seconds
+		assertThat(Duration.between(start, Instant.now())).isLessThan(Duration.ofSeconds(2));
+		verify(orderOutboxRepository).deleteInBatch(Collections.emptyList());
+	}
+
+	private List<OrderOutboxMessage> batch(int size) {
+		List<OrderOutboxMessage> batch = new ArrayList<>(size);
+		for (long id = 1; id <= size; id++) {
+			OrderOutboxMessage message = new OrderOutboxMessage().orderId(id).topic(TOPIC).body(new byte[] { 1 })
+					.schemaVersion((int) OrderEventCodec.SCHEMA_VERSION);
+			message.setId(id);
+			batch.add(message);
+		}
+		when(orderOutboxRepository.findOldestForUpdate(any(Pageable.class))).thenReturn(batch);
+		return batch;
+	}
+}
@@ -0,0 +1,75 @@
+package com.aspire.blog.order.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.repository.OrderRepository;
+import com.aspire.blog.order.service.dto.OrderAggregateDTO;
+import com.aspire.blog.order.service.dto.OrderStatisticsDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for the {@link OrderStatistics} class.
+ */
+public class OrderStatisticsTest {
+
+	private OrderRepository orderRepository;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private OrderStatistics orderStatistics;
+
+	@BeforeEach
+	public void setup() {
+		orderRepository = mock(OrderRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		orderStatistics = new OrderStatistics(orderRepository, meterRegistry);
+	}
+
+	@Test
+	public void testRebuildFromAggregates() {
+		when(orderRepository.aggregateByStatus()).thenReturn(
+				Arrays.asList(new OrderAggregateDTO(OrderStatus.PLACED, 2L, 30D, 15D, 4L),
+						new OrderAggregateDTO(OrderStatus.COMPLETED, 3L, 12D, 4D, null)));
+
+		orderStatistics.rebuild();
+
+		OrderStatisticsDTO statistics = orderStatistics.snapshot();
+		assertThat(statistics.getCount()).isEqualTo(5);
+		assertThat(statistics.getPlacedCount()).isEqualTo(2);
+		assertThat(statistics.getAmountTotal()).isEqualTo(42D);
+		assertThat(statistics.getInventoryTotal()).isEqualTo(4);
+	}
+
+	@Test
+	public void testCommittedChangesAreCounted() {
+		orderStatistics.placed(10D, 2L);
+		orderStatistics.placed(5D, null);
+		orderStatistics.completed(1);
+		orderStatistics.deleted(OrderStatus.COMPLETED, 10D, 2L);
+
+		OrderStatisticsDTO statistics = orderStatistics.snapshot();
+		assertThat(statistics.getCount()).isEqualTo(1);
+		assertThat(statistics.getPlacedCount()).isEqualTo(1);
+		assertThat(statistics.getAmountTotal()).isEqualTo(5D);
+		assertThat(statistics.getInventoryTotal()).isEqualTo(0);
+	}
+
+	@Test
+	public void testStatisticsArePublishedAsGauges() {
+		orderStatistics.placed(10D, 2L);
+
+		assertThat(meterRegistry.get("orders.count").gauge().value()).isEqualTo(1D);
+		assertThat(meterRegistry.get("orders.placed.count").gauge().value()).isEqualTo(1D);
+		assertThat(meterRegistry.get("orders.amount.total").gauge().value()).isEqualTo(10D);
+		assertThat(meterRegistry.get("orders.inventory.total").gauge().value()).isEqualTo(2D);
+	}
+}
@@ -0,0 +1,66 @@
+package com.aspire.blog.order.web.rest;
+
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.aspire.blog.order.OrderApp;
+import com.aspire.blog.order.service.OrderExportJobService;
+import com.aspire.blog.order.web.rest.errors.ExceptionTranslator;
+
+/**
+ * Integration tests for the {@link OrderExportJobResource} REST controller.
+ */
+@EmbeddedKafka
+@SpringBootTest(classes = OrderApp.class)
+public class OrderExportJobResourceIT {
+
+	@Autowired
+	private OrderExportJobService orderExportJobService;
+
+	@Autowired
+	private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+	@Autowired
+	private ExceptionTranslator exceptionTranslator;
+
+	private MockMvc restExportJobMockMvc;
+
+	@BeforeEach
+	public void setup() {
+		final OrderExportJobResource orderExportJobResource = new OrderExportJobResource(orderExportJobService);
+		this.restExportJobMockMvc = MockMvcBuilders.standaloneSetup(orderExportJobResource)
+				.setControllerAdvice(exceptionTranslator).setMessageConverters(jacksonMessageConverter).build();
+	}
+
+	@Test
+	public void createExportJob() throws Exception {
+		restExportJobMockMvc.perform(post("/api/orders/export-jobs?type=PDF")).andExpect(status().isAccepted())
+				.andExpect(header().string("Location", notNullValue())).andExpect(jsonPath("$.id").isNotEmpty())
+				.andExpect(jsonPath("$.type").value("PDF"));
+	}
+
+	@Test
+	public void createExportJobWithInvalidType() throws Exception {
+		restExportJobMockMvc.perform(post("/api/orders/export-jobs?type=DOCX")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void getNonExistingExportJob() throws Exception {
+		restExportJobMockMvc.perform(get("/api/orders/export-jobs/{id}", "unknown")).andExpect(status().isNotFound());
+		restExportJobMockMvc.perform(get("/api/orders/export-jobs/{id}/file", "unknown"))
+				.andExpect(status().isNotFound());
+	}
+}
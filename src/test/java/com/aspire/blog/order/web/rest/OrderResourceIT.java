@@ -2,38 +2,67 @@ package com.aspire.blog.order.web.rest;
 
 import static com.aspire.blog.order.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import javax.persistence.EntityManager;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.Validator;
 
 import com.aspire.blog.order.OrderApp;
+import com.aspire.blog.order.config.ApplicationProperties;
+import com.aspire.blog.order.config.Constants;
 import com.aspire.blog.order.domain.Order;
+import com.aspire.blog.order.domain.OrderOutboxMessage;
+import com.aspire.blog.order.domain.enumeration.OrderStatus;
+import com.aspire.blog.order.repository.OrderOutboxRepository;
 import com.aspire.blog.order.repository.OrderRepository;
+import com.aspire.blog.order.service.OrderEventCodec;
 import com.aspire.blog.order.service.OrderService;
 import com.aspire.blog.order.service.dto.OrderDTO;
+import com.aspire.blog.order.service.dto.OrderEventDTO;
 import com.aspire.blog.order.service.mapper.OrderMapper;
 import com.aspire.blog.order.web.rest.errors.ExceptionTranslator;
 
@@ -55,15 +84,30 @@ public class OrderResourceIT {
 	private static final Long UPDATED_INVENTORY = 2L;
 	private static final Long SMALLER_INVENTORY = 1L - 1L;
 
+	private static final OrderStatus DEFAULT_STATUS = OrderStatus.PLACED;
+	private static final OrderStatus UPDATED_STATUS = OrderStatus.COMPLETED;
+
+	private static final Instant DEFAULT_PLACED_DATE = Instant.ofEpochMilli(0L);
+	private static final Instant UPDATED_PLACED_DATE = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
 	@Autowired
 	private OrderRepository orderRepository;
 
+	@Autowired
+	private OrderOutboxRepository orderOutboxRepository;
+
 	@Autowired
 	private OrderMapper orderMapper;
 
+	@Autowired
+	private CacheManager cacheManager;
+
 	@Autowired
 	private OrderService orderService;
 
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
 	@Autowired
 	private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -83,10 +127,15 @@ public class OrderResourceIT {
 
 	private Order order;
 
+	/**
+	 * Orders committed outside of the test transaction, removed after the test.
+	 */
+	private final List<Long> committedOrderIds = new ArrayList<>();
+
 	@BeforeEach
 	public void setup() {
 		MockitoAnnotations.initMocks(this);
-		final OrderResource orderResource = new OrderResource(orderService);
+		final OrderResource orderResource = new OrderResource(orderService, applicationProperties);
 		this.restOrderMockMvc = MockMvcBuilders.standaloneSetup(orderResource)
 				.setCustomArgumentResolvers(pageableArgumentResolver).setControllerAdvice(exceptionTranslator)
 				.setConversionService(createFormattingConversionService()).setMessageConverters(jacksonMessageConverter)
@@ -100,7 +149,8 @@ public class OrderResourceIT {
 	 * they test an entity which requires the current entity.
 	 */
 	public static Order createEntity(EntityManager em) {
-		Order order = new Order().name(DEFAULT_NAME).amount(DEFAULT_AMOUNT).inventory(DEFAULT_INVENTORY);
+		Order order = new Order().name(DEFAULT_NAME).amount(DEFAULT_AMOUNT).inventory(DEFAULT_INVENTORY)
+				.status(DEFAULT_STATUS).placedDate(DEFAULT_PLACED_DATE);
 		return order;
 	}
 
@@ -111,7 +161,8 @@ public class OrderResourceIT {
 	 * they test an entity which requires the current entity.
 	 */
 	public static Order createUpdatedEntity(EntityManager em) {
-		Order order = new Order().name(UPDATED_NAME).amount(UPDATED_AMOUNT).inventory(UPDATED_INVENTORY);
+		Order order = new Order().name(UPDATED_NAME).amount(UPDATED_AMOUNT).inventory(UPDATED_INVENTORY)
+				.status(UPDATED_STATUS).placedDate(UPDATED_PLACED_DATE);
 		return order;
 	}
 
@@ -120,6 +171,17 @@ public class OrderResourceIT {
 		order = createEntity(em);
 	}
 
+	@AfterEach
+	public void cleanup() {
+		if (committedOrderIds.isEmpty()) {
+			return;
+		}
+		// The outbox messages the service committed along with the orders
+		orderOutboxRepository.deleteInBatch(orderOutboxRepository.findAll().stream()
+				.filter(message -> committedOrderIds.contains(message.getOrderId())).collect(Collectors.toList()));
+		orderRepository.deleteInBatch(orderRepository.findAllById(committedOrderIds));
+	}
+
 	@Test
 	@Transactional
 	public void createOrder() throws Exception {
@@ -137,6 +199,44 @@ public class OrderResourceIT {
 		assertThat(testOrder.getName()).isEqualTo(DEFAULT_NAME);
 		assertThat(testOrder.getAmount()).isEqualTo(DEFAULT_AMOUNT);
 		assertThat(testOrder.getInventory()).isEqualTo(DEFAULT_INVENTORY);
+		assertThat(testOrder.getStatus()).isEqualTo(DEFAULT_STATUS);
+
+		// Validate the placed event is in the outbox
+		List<OrderOutboxMessage> messages = orderOutboxRepository.findAll().stream()
+				.filter(message -> message.getOrderId().equals(testOrder.getId())).collect(Collectors.toList());
+		assertThat(messages).extracting(OrderOutboxMessage::getTopic).containsExactly(Constants.TOPIC_ORDER_PLACED);
+		OrderEventDTO event = OrderEventCodec.decode(messages.get(0).getSchemaVersion().byteValue(),
+				messages.get(0).getBody());
+		assertThat(event.getId()).isEqualTo(testOrder.getId());
+		assertThat(event.getName()).isEqualTo(DEFAULT_NAME);
+		assertThat(event.getStatus()).isEqualTo(OrderStatus.PLACED);
+	}
+
+	@Test
+	public void createOrdersInBulk() throws Exception {
+		int databaseSizeBeforeCreate = orderRepository.findAll().size();
+		long maxIdBeforeCreate = orderRepository.findAll().stream().mapToLong(Order::getId).max().orElse(0L);
+
+		// Create more orders than fit in one chunk
+		int count = applicationProperties.getBulk().getChunkSize() + 1;
+		List<OrderDTO> orderDTOs = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			orderDTOs.add(orderMapper.toDto(createEntity(em)));
+		}
+		try {
+			restOrderMockMvc
+					.perform(post("/api/orders/bulk").contentType(TestUtil.APPLICATION_JSON_UTF8)
+							.content(TestUtil.convertObjectToJsonBytes(orderDTOs)))
+					.andExpect(status().isCreated()).andExpect(jsonPath("$.length()").value(count))
+					.andExpect(jsonPath("$.[*].status").value(everyItem(is(OrderStatus.PLACED.toString()))));
+
+			// Validate the Orders in the database
+			assertThat(orderRepository.findAll()).hasSize(databaseSizeBeforeCreate + count);
+		} finally {
+			// Chunks are committed by the service, even when a later one fails
+			orderRepository.findAll().stream().map(Order::getId).filter(id -> id > maxIdBeforeCreate)
+					.forEach(committedOrderIds::add);
+		}
 	}
 
 	@Test
@@ -164,7 +264,7 @@ public class OrderResourceIT {
 		orderRepository.saveAndFlush(order);
 
 		// Get all the orderList
-		restOrderMockMvc.perform(get("/api/orders?sort=id,desc")).andExpect(status().isOk())
+		restOrderMockMvc.perform(get("/api/orders?afterId={afterId}", order.getId() - 1)).andExpect(status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
 				.andExpect(jsonPath("$.[*].id").value(hasItem(order.getId().intValue())))
 				.andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME.toString())))
@@ -172,6 +272,127 @@ public class OrderResourceIT {
 				.andExpect(jsonPath("$.[*].inventory").value(hasItem(DEFAULT_INVENTORY.intValue())));
 	}
 
+	@Test
+	@Transactional
+	public void getOrdersByKeysetPage() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+		Order nextOrder = orderRepository.saveAndFlush(createUpdatedEntity(em));
+		long afterId = order.getId() - 1;
+
+		restOrderMockMvc.perform(get("/api/orders?afterId={afterId}&size=1", afterId)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$.[0].id").value(order.getId().intValue()))
+				.andExpect(header().string(HttpHeaders.LINK,
+						containsString("afterId=" + order.getId() + "&size=1>; rel=\"next\"")))
+				.andExpect(header().doesNotExist("X-Total-Count"));
+
+		restOrderMockMvc.perform(get("/api/orders?afterId={afterId}&size=1", order.getId())).andExpect(status().isOk())
+				.andExpect(jsonPath("$.[0].id").value(nextOrder.getId().intValue()));
+
+		restOrderMockMvc.perform(get("/api/orders?size=1")).andExpect(status().isOk())
+				.andExpect(header().exists("X-Total-Count"));
+	}
+
+	@Test
+	@Transactional
+	public void getOrderAggregates() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+		cacheManager.getCache(OrderRepository.ORDER_AGGREGATES_CACHE).clear();
+
+		restOrderMockMvc.perform(get("/api/orders/aggregates")).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+				.andExpect(jsonPath("$.total.count").value(greaterThanOrEqualTo(1)))
+				.andExpect(jsonPath("$.total.amountSum").value(greaterThanOrEqualTo(DEFAULT_AMOUNT)))
+				.andExpect(jsonPath("$.byStatus.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
+	}
+
+	@Test
+	public void getOrderStatistics() throws Exception {
+		restOrderMockMvc.perform(get("/api/orders/statistics")).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+				.andExpect(jsonPath("$.count").isNumber()).andExpect(jsonPath("$.placedCount").isNumber())
+				.andExpect(jsonPath("$.amountTotal").isNumber()).andExpect(jsonPath("$.inventoryTotal").isNumber());
+	}
+
+	@Test
+	@Transactional
+	public void getStuckOrders() throws Exception {
+		// Initialize the database, an old placed order and an old completed one
+		orderRepository.saveAndFlush(order);
+		Order completed = orderRepository.saveAndFlush(createEntity(em).status(OrderStatus.COMPLETED));
+		Order recent = orderRepository.saveAndFlush(createEntity(em).placedDate(Instant.now()));
+
+		restOrderMockMvc.perform(get("/api/orders/stuck?placedForMinutes=60")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.[*].id").value(hasItem(order.getId().intValue())))
+				.andExpect(jsonPath("$.[*].id").value(not(hasItem(completed.getId().intValue()))))
+				.andExpect(jsonPath("$.[*].id").value(not(hasItem(recent.getId().intValue()))))
+				.andExpect(jsonPath("$.[*].status").value(everyItem(is(OrderStatus.PLACED.toString()))))
+				.andExpect(header().exists("X-Total-Count"));
+	}
+
+	@Test
+	@Transactional
+	public void streamAllOrders() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+
+		MvcResult mvcResult = restOrderMockMvc.perform(get("/api/orders/stream?id.equals={id}", order.getId()))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		restOrderMockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andExpect(content().string(startsWith("{\"id\":" + order.getId() + ",")))
+				.andExpect(content().string(endsWith("}\n")));
+	}
+
+	@Test
+	public void exportAllOrdersAsCsv() throws Exception {
+		MvcResult mvcResult = restOrderMockMvc.perform(get("/api/orders/CSV")).andExpect(request().asyncStarted())
+				.andReturn();
+
+		restOrderMockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk())
+				.andExpect(content().contentType("text/csv;charset=UTF-8"))
+				.andExpect(content().string(startsWith("Name,Amount,Inventory")));
+	}
+
+	@Test
+	@Transactional
+	public void exportOrdersAsCsvByNamePrefix() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+
+		MvcResult mvcResult = restOrderMockMvc.perform(get("/api/orders/CSV?name.startsWith=AAA"))
+				.andExpect(request().asyncStarted()).andReturn();
+		restOrderMockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk())
+				.andExpect(content().string(containsString(DEFAULT_NAME)));
+
+		mvcResult = restOrderMockMvc.perform(get("/api/orders/CSV?name.startsWith=BBB"))
+				.andExpect(request().asyncStarted()).andReturn();
+		restOrderMockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk())
+				.andExpect(content().string(not(containsString(DEFAULT_NAME))));
+	}
+
+	@Test
+	@Transactional
+	public void exportAllOrdersAsBundle() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+
+		byte[] bundle = restOrderMockMvc.perform(get("/api/orders/BUNDLE")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.zip\""))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		List<String> entries = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(bundle))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				entries.add(entry.getName());
+			}
+		}
+		assertThat(entries).containsExactly("example.pdf", "Example.xlsx", "example.csv", "example.html");
+	}
+
 	@Test
 	@Transactional
 	public void updateOrder() throws Exception {
@@ -189,7 +410,8 @@ public class OrderResourceIT {
 		OrderDTO orderDTO = orderMapper.toDto(updatedOrder);
 
 		restOrderMockMvc.perform(put("/api/orders").contentType(TestUtil.APPLICATION_JSON_UTF8)
-				.content(TestUtil.convertObjectToJsonBytes(orderDTO.getId()))).andExpect(status().isOk());
+				.content(TestUtil.convertObjectToJsonBytes(orderDTO.getId()))).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + (orderDTO.getVersion() + 1) + "\""));
 
 		// Validate the Order in the database
 		List<Order> orderList = orderRepository.findAll();
@@ -200,6 +422,46 @@ public class OrderResourceIT {
 		assertThat(testOrder.getInventory()).isEqualTo(DEFAULT_INVENTORY);
 	}
 
+	@Test
+	@Transactional
+	public void updateOrderIfMatching() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+		Long version = order.getVersion();
+
+		restOrderMockMvc
+				.perform(put("/api/orders").header(HttpHeaders.IF_MATCH, "\"" + version + "\"")
+						.contentType(TestUtil.APPLICATION_JSON_UTF8)
+						.content(TestUtil.convertObjectToJsonBytes(order.getId())))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.status").value(OrderStatus.COMPLETED.toString()))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+	}
+
+	@Test
+	@Transactional
+	public void updateOrderWithStaleETag() throws Exception {
+		// Initialize the database
+		orderRepository.saveAndFlush(order);
+		Long staleVersion = order.getVersion() + 1;
+
+		restOrderMockMvc
+				.perform(put("/api/orders").header(HttpHeaders.IF_MATCH, "\"" + staleVersion + "\"")
+						.contentType(TestUtil.APPLICATION_JSON_UTF8)
+						.content(TestUtil.convertObjectToJsonBytes(order.getId())))
+				.andExpect(status().isPreconditionFailed());
+
+		// Validate the Order is unchanged in the database
+		Order testOrder = orderRepository.findById(order.getId()).get();
+		assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.PLACED);
+	}
+
+	@Test
+	@Transactional
+	public void updateMissingOrder() throws Exception {
+		restOrderMockMvc.perform(put("/api/orders").contentType(TestUtil.APPLICATION_JSON_UTF8)
+				.content(TestUtil.convertObjectToJsonBytes(Long.MAX_VALUE))).andExpect(status().isNotFound());
+	}
+
 	@Test
 	@Transactional
 	public void updateNonExistingOrder() throws Exception {
@@ -217,6 +479,24 @@ public class OrderResourceIT {
 		assertThat(orderList).hasSize(databaseSizeBeforeUpdate);
 	}
 
+	@Test
+	public void completeOrders() throws Exception {
+		// Initialize the database, the orders are completed in the service's own transactions
+		Order placed = orderRepository.saveAndFlush(createEntity(em).status(OrderStatus.PLACED));
+		committedOrderIds.add(placed.getId());
+		Order completed = orderRepository.saveAndFlush(createEntity(em).status(OrderStatus.COMPLETED));
+		committedOrderIds.add(completed.getId());
+
+		restOrderMockMvc
+				.perform(put("/api/orders/complete").contentType(TestUtil.APPLICATION_JSON_UTF8)
+						.content(TestUtil.convertObjectToJsonBytes(
+								Arrays.asList(placed.getId(), completed.getId(), Long.MAX_VALUE))))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$.[0]").value(placed.getId().intValue()));
+
+		assertThat(orderRepository.findById(placed.getId()).get().getStatus()).isEqualTo(OrderStatus.COMPLETED);
+	}
+
 	@Test
 	@Transactional
 	public void deleteOrder() throws Exception {
@@ -232,6 +512,10 @@ public class OrderResourceIT {
 		// Validate the database contains one less item
 		List<Order> orderList = orderRepository.findAll();
 		assertThat(orderList).hasSize(databaseSizeBeforeDelete - 1);
+
+		// Validate the failed event is in the outbox
+		assertThat(orderOutboxRepository.findAll()).filteredOn(message -> message.getOrderId().equals(order.getId()))
+				.extracting(OrderOutboxMessage::getTopic).containsExactly(Constants.TOPIC_ORDER_FAILED);
 	}
 
 	@Test
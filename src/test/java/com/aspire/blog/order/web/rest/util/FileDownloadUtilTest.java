@@ -0,0 +1,137 @@
+package com.aspire.blog.order.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Unit tests for the {@link FileDownloadUtil} utility class.
+ */
+public class FileDownloadUtilTest {
+
+	private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+	@BeforeEach
+	public void setup() {
+		request = new MockHttpServletRequest();
+		response = new MockHttpServletResponse();
+	}
+
+	@Test
+	public void writeWholeFile() throws Exception {
+		Path file = Files.createTempFile("download", ".pdf");
+		try {
+			Files.write(file, CONTENT);
+			FileDownloadUtil.write(new FileSystemResource(file), false, request, response);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+		assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION))
+				.isEqualTo("attachment; filename=\"" + file.getFileName() + "\"");
+		assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isNull();
+	}
+
+	@Test
+	public void ignoreRangeOfFileNotResumable() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+		FileDownloadUtil.write(new ByteArrayResource(CONTENT), false, request, response);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+	}
+
+	@Test
+	public void writeRangeOfFile() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+		Path file = Files.createTempFile("download", ".pdf");
+		try {
+			Files.write(file, CONTENT);
+			FileDownloadUtil.writeResumable(new FileSystemResource(file), "job", false, request, response);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentAsString()).isEqualTo("2345");
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+		assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+		assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"job-10\"");
+	}
+
+	@Test
+	public void writeRangeOfSameVersion() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"job-10\"");
+		FileDownloadUtil.writeResumable(new ByteArrayResource(CONTENT), "job", false, request, response);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentAsString()).isEqualTo("2345");
+	}
+
+	@Test
+	public void writeWholeFileOfOtherVersion() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"other-10\"");
+		FileDownloadUtil.writeResumable(new ByteArrayResource(CONTENT), "job", false, request, response);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+	}
+
+	@Test
+	public void writeSuffixRangeOfMemoryResource() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+		FileDownloadUtil.writeResumable(new ByteArrayResource(CONTENT), "job", false, request, response);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getContentAsString()).isEqualTo("789");
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+	}
+
+	@Test
+	public void rejectUnsatisfiableRange() throws Exception {
+		request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+		FileDownloadUtil.writeResumable(new ByteArrayResource(CONTENT), "job", false, request, response);
+
+		assertThat(response.getStatus()).isEqualTo(416);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	@Test
+	public void gzipCompressibleResource() throws Exception {
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+		FileDownloadUtil.writeResumable(new ByteArrayResource(CONTENT), "job", true, request, response);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isNull();
+		byte[] content = StreamUtils
+				.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())));
+		assertThat(content).isEqualTo(CONTENT);
+	}
+}